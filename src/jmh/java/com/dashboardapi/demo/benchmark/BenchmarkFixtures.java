@@ -0,0 +1,58 @@
+package com.dashboardapi.demo.benchmark;
+
+import com.dashboardapi.demo.entity.User;
+import com.dashboardapi.demo.repository.UserRepository;
+import com.dashboardapi.demo.security.SigningKeyRegistry;
+import com.dashboardapi.demo.security.VerifiedTokenCache;
+import com.dashboardapi.demo.service.JwtService;
+import com.dashboardapi.demo.service.MyUserDetailsService;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Wires the services the way Spring would, without starting a context or a database.
+ */
+final class BenchmarkFixtures {
+
+    static final Duration ACCESS_TOKEN_TTL = Duration.ofMinutes(15);
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtService jwtService(SignatureAlgorithm algorithm, boolean tokenCacheEnabled) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "verifiedTokenCache",
+                new VerifiedTokenCache(tokenCacheEnabled, 10_000, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtService, "accessTokenTtl", ACCESS_TOKEN_TTL);
+        ReflectionTestUtils.setField(jwtService, "signingKeyRegistry",
+                new SigningKeyRegistry(algorithm, ACCESS_TOKEN_TTL));
+        return jwtService;
+    }
+
+    static User user(String userName) {
+        return new User(1, userName, "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3k9VgVhtAHyzQVpRnCZbS1W", "USER,ADMIN", 0);
+    }
+
+    /**
+     * User details service whose repository answers every lookup with the same user.
+     */
+    static MyUserDetailsService myUserDetailsService(boolean cacheEnabled) {
+        MyUserDetailsService myUserDetailsService = new MyUserDetailsService(cacheEnabled, 1000,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry());
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(), new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByUserName")) {
+                        return Optional.of(user((String) args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        ReflectionTestUtils.setField(myUserDetailsService, "userRepository", userRepository);
+        return myUserDetailsService;
+    }
+}
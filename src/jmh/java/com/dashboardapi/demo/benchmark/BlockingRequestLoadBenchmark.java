@@ -0,0 +1,118 @@
+package com.dashboardapi.demo.benchmark;
+
+import com.dashboardapi.demo.service.JwtService;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bursts of concurrent blocking requests on a platform thread pool the size of Tomcat's default (200 threads)
+ * versus a virtual thread per request, as with spring.threads.virtual.enabled. Each request verifies a JWT, like
+ * JwtAuthFilter, then holds one of dbConnections stand-in database connections for dbLatencyMillis.
+ * One operation is a burst of concurrency requests, so concurrency / (ms per op) is the throughput. The p50 and p99
+ * request latencies of the last measurement iteration are printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class BlockingRequestLoadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"200", "1000", "4000"})
+    public int concurrency;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"20"})
+    public int dbLatencyMillis;
+
+    @Param({"1000"})
+    public int dbConnections;
+
+    private ExecutorService executor;
+    private Semaphore database;
+    private JwtService jwtService;
+    private String token;
+    private List<long[]> latencies;
+
+    @Setup
+    public void setUp() {
+        executor = threads.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        database = new Semaphore(dbConnections);
+        jwtService = BenchmarkFixtures.jwtService(SignatureAlgorithm.HS256, false);
+        token = jwtService.generateToken("user");
+    }
+
+    @Setup(Level.Iteration)
+    public void resetLatencies() {
+        latencies = new ArrayList<>();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%n%s x %d: p50 %.1f ms, p99 %.1f ms over %d requests%n", threads, concurrency,
+                all[all.length / 2] / 1e6, all[(int) (all.length * 0.99)] / 1e6, all.length);
+    }
+
+    @Benchmark
+    public long burst() throws InterruptedException {
+        long[] burstLatencies = new long[concurrency];
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            int request = i;
+            executor.execute(() -> {
+                try {
+                    handle();
+                } finally {
+                    burstLatencies[request] = System.nanoTime() - start;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        latencies.add(burstLatencies);
+        return burstLatencies[concurrency - 1];
+    }
+
+    private void handle() {
+        jwtService.verifyToken(token);
+        database.acquireUninterruptibly();
+        try {
+            Thread.sleep(dbLatencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            database.release();
+        }
+    }
+}
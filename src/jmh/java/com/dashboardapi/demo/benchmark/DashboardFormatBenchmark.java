@@ -0,0 +1,91 @@
+package com.dashboardapi.demo.benchmark;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode time of dashboard list responses in each media type the API negotiates. Payload sizes, raw and
+ * gzipped, are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardFormatBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int listSize;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<Dashboard> dashboards;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .modulesToInstall(new BlackbirdModule())
+                .build();
+        TypeReference<List<Dashboard>> listType = new TypeReference<>() {
+        };
+        writer = objectMapper.writerFor(listType);
+        reader = objectMapper.readerFor(listType);
+        dashboards = new ArrayList<>(listSize);
+        for (int i = 1; i <= listSize; i++) {
+            dashboards.add(DashboardSerializationBenchmark.dashboard(i));
+        }
+        encoded = writer.writeValueAsBytes(dashboards);
+        System.out.printf("%n%s x %d: %d bytes, %d gzipped%n", format, listSize, encoded.length, gzippedSize(encoded));
+    }
+
+    private static int gzippedSize(byte[] bytes) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(bytes);
+        }
+        return buffer.size();
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return writer.writeValueAsBytes(dashboards);
+    }
+
+    @Benchmark
+    public List<Dashboard> decode() throws Exception {
+        return reader.readValue(encoded);
+    }
+}
@@ -0,0 +1,90 @@
+package com.dashboardapi.demo.benchmark;
+
+import com.dashboardapi.demo.dto.DashboardSnapshot;
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.entity.ErrorMessage;
+import com.dashboardapi.demo.error.DashboardRecordNotFoundException;
+import com.dashboardapi.demo.service.DashboardCache;
+import com.dashboardapi.demo.util.ApplicationConstants;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The in-process part of GET /dashboards/{id}: a cache hit and its body, against a miss answered from the negative
+ * cache with the stackless exception and the precomputed 404 body. stackTraceNotFound is the previous miss path
+ * without its query: an exception that captures its stack trace and an ErrorMessage serialized per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DashboardNotFoundBenchmark {
+
+    private static final Long FOUND_ID = 1L;
+    private static final Long MISSING_ID = 2L;
+    private static final Function<Long, DashboardSnapshot> NO_QUERY = id -> {
+        throw new IllegalStateException("queried " + id);
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private DashboardCache dashboardCache;
+    private byte[] notFoundBody;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        dashboardCache = new DashboardCache(true, 10_000, Duration.ofMinutes(5), 10_000, Duration.ofSeconds(30),
+                new SimpleMeterRegistry());
+        Dashboard dashboard = Dashboard.builder()
+                .id(FOUND_ID)
+                .title("Dashboard")
+                .createdAt(LocalDateTime.of(2024, 1, 10, 18, 10, 15))
+                .updatedAt(LocalDateTime.of(2024, 1, 15, 18, 10, 15))
+                .version(0)
+                .build();
+        dashboardCache.get(FOUND_ID, id -> DashboardSnapshot.from(dashboard));
+        dashboardCache.get(MISSING_ID, id -> null);
+        notFoundBody = objectMapper.writeValueAsBytes(
+                new ErrorMessage(HttpStatus.NOT_FOUND, ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT, null));
+    }
+
+    @Benchmark
+    public byte[] cacheHit() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dashboardCache.get(FOUND_ID, NO_QUERY).toDashboard());
+    }
+
+    @Benchmark
+    public Object negativeCacheNotFound() {
+        if (dashboardCache.get(MISSING_ID, NO_QUERY) == null) {
+            DashboardRecordNotFoundException notFound =
+                    new DashboardRecordNotFoundException(ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT);
+            return notFound.getMessage().equals(ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT) ? notFoundBody : null;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public byte[] stackTraceNotFound() throws JsonProcessingException {
+        Exception notFound = new Exception(ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT);
+        return objectMapper.writeValueAsBytes(new ErrorMessage(HttpStatus.NOT_FOUND, notFound.getMessage(),
+                notFound.getCause()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.dashboardapi.demo.benchmark;
+
+import com.dashboardapi.demo.dto.DashboardSnapshot;
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.repository.DashboardRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lists every dashboard in an H2 table of rows dashboards, the way getAllDashboards does:
+ * entity loads managed entities in a read-write transaction, so each one gets a loaded-state copy and is dirty
+ * checked at commit; readOnlyEntity loads the same entities in a read-only transaction; snapshot reads the
+ * DashboardSnapshot projection and maps it to detached dashboards. The gc profiler's gc.alloc.rate.norm is the
+ * heap cost of one listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class DashboardReadPathBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"50000"})
+    public int rows;
+
+    @Param({"entity", "readOnlyEntity", "snapshot"})
+    public String readPath;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+    private DashboardRepository dashboardRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:readpath;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER");
+        dataSource.setUser("sa");
+
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan("com.dashboardapi.demo.entity");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.jdbc.batch_size", "50",
+                "hibernate.order_inserts", "true"));
+        entityManagerFactoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(!readPath.equals("entity"));
+
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        dashboardRepository = new JpaRepositoryFactory(entityManager).getRepository(DashboardRepository.class);
+
+        TransactionTemplate seedTemplate = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < rows; from += BATCH_SIZE) {
+            int batchStart = from;
+            seedTemplate.executeWithoutResult(status -> {
+                for (int i = batchStart; i < Math.min(batchStart + BATCH_SIZE, rows); i++) {
+                    entityManager.persist(Dashboard.builder().title("Dashboard " + i).build());
+                }
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactoryBean.destroy();
+    }
+
+    @Benchmark
+    public List<Dashboard> listDashboards() {
+        return transactionTemplate.execute(status -> readPath.equals("snapshot")
+                ? dashboardRepository.findAllSnapshots().stream().map(DashboardSnapshot::toDashboard).toList()
+                : dashboardRepository.findAll());
+    }
+}
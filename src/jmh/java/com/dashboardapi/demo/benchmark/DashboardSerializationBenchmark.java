@@ -0,0 +1,133 @@
+package com.dashboardapi.demo.benchmark;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.response.ResponseHandler;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the Dashboard responses, using an ObjectMapper built like the one Spring MVC uses.
+ * tuned=false is the original path: reflective accessors, DateTimeFormatter timestamps, a HashMap envelope and a
+ * fresh byte[] per response. tuned=true adds Blackbird, TimestampSerializer, the record envelope and pre-built
+ * ObjectWriters streaming into a reused buffer, as the servlet output buffer is.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardSerializationBenchmark {
+
+    @Param({"100"})
+    public int listSize;
+
+    @Param({"false", "true"})
+    public boolean tuned;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter dashboardWriter;
+    private ObjectWriter listWriter;
+    private Dashboard dashboard;
+    private List<Dashboard> dashboards;
+
+    @Setup
+    public void setUp() {
+        objectMapper = tuned
+                ? Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build()
+                : Jackson2ObjectMapperBuilder.json().mixIn(Dashboard.class, JsonFormatTimestamps.class).build();
+        dashboardWriter = objectMapper.writerFor(Dashboard.class);
+        listWriter = objectMapper.writerFor(new TypeReference<List<Dashboard>>() {
+        });
+        dashboard = dashboard(1);
+        dashboards = new ArrayList<>(listSize);
+        for (int i = 1; i <= listSize; i++) {
+            dashboards.add(dashboard(i));
+        }
+    }
+
+    static Dashboard dashboard(long id) {
+        return Dashboard.builder()
+                .id(id)
+                .title("Dashboard title " + id)
+                .createdAt(LocalDateTime.of(2024, 1, 10, 18, 10, 15).plusMinutes(id))
+                .updatedAt(LocalDateTime.of(2024, 1, 15, 18, 10, 15).plusMinutes(id))
+                .version((int) id)
+                .build();
+    }
+
+    @Benchmark
+    public int single(OutputBuffer buffer) throws Exception {
+        if (!tuned) {
+            return objectMapper.writeValueAsBytes(dashboard).length;
+        }
+        buffer.reset();
+        dashboardWriter.writeValue(buffer, dashboard);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int list(OutputBuffer buffer) throws Exception {
+        if (!tuned) {
+            return objectMapper.writeValueAsBytes(dashboards).length;
+        }
+        buffer.reset();
+        listWriter.writeValue(buffer, dashboards);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int envelope(OutputBuffer buffer) throws Exception {
+        if (!tuned) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Requested dashboard details are given here");
+            response.put("httpStatus", HttpStatus.OK);
+            response.put("data", dashboard);
+            return objectMapper.writeValueAsBytes(response).length;
+        }
+        buffer.reset();
+        objectMapper.writeValue(buffer, ResponseHandler.responseBuilder("Requested dashboard details are given here",
+                HttpStatus.OK, dashboard).getBody());
+        return buffer.size();
+    }
+
+    @State(Scope.Thread)
+    public static class OutputBuffer extends ByteArrayOutputStream {
+
+        public OutputBuffer() {
+            super(64 * 1024);
+        }
+    }
+
+    // Puts back the @JsonFormat timestamp serialization for the baseline
+    abstract static class JsonFormatTimestamps {
+
+        @JsonSerialize(using = JsonSerializer.None.class)
+        private LocalDateTime createdAt;
+
+        @JsonSerialize(using = JsonSerializer.None.class)
+        private LocalDateTime updatedAt;
+    }
+}
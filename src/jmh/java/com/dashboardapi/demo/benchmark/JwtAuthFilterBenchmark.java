@@ -0,0 +1,91 @@
+package com.dashboardapi.demo.benchmark;
+
+import com.dashboardapi.demo.entity.MyUserDetails;
+import com.dashboardapi.demo.filter.JwtAuthFilter;
+import com.dashboardapi.demo.security.AuthorizationMode;
+import com.dashboardapi.demo.security.TokenRevocationList;
+import com.dashboardapi.demo.security.VerifiedToken;
+import com.dashboardapi.demo.service.JwtService;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full pass through JwtAuthFilter with mock servlet objects, in both authorization modes (DATABASE against
+ * the cached user details service and a stub repository), with and without the revocation check against
+ * 10k revoked tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    @Param({"true", "false"})
+    public boolean revocationCheck;
+
+    @Param({"TOKEN", "DATABASE"})
+    public AuthorizationMode authorizationMode;
+
+    private JwtAuthFilter jwtAuthFilter;
+    private TokenRevocationList tokenRevocationList;
+    private VerifiedToken verifiedToken;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = BenchmarkFixtures.jwtService(SignatureAlgorithm.HS256, false);
+
+        tokenRevocationList = new TokenRevocationList(1 << 20, BenchmarkFixtures.ACCESS_TOKEN_TTL);
+        Instant expiration = Instant.now().plus(BenchmarkFixtures.ACCESS_TOKEN_TTL);
+        for (int i = 0; i < 10_000; i++) {
+            tokenRevocationList.revokeToken(UUID.randomUUID().toString(), expiration);
+        }
+
+        jwtAuthFilter = new JwtAuthFilter();
+        ReflectionTestUtils.setField(jwtAuthFilter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(jwtAuthFilter, "myUserDetailsService", BenchmarkFixtures.myUserDetailsService(true));
+        ReflectionTestUtils.setField(jwtAuthFilter, "tokenRevocationList", tokenRevocationList);
+        ReflectionTestUtils.setField(jwtAuthFilter, "authorizationMode", authorizationMode);
+        ReflectionTestUtils.setField(jwtAuthFilter, "revocationCheckEnabled", revocationCheck);
+
+        String token = jwtService.generateToken(new MyUserDetails(BenchmarkFixtures.user("benchmark-user")));
+        authorizationHeader = "Bearer " + token;
+        verifiedToken = jwtService.verifyToken(token);
+    }
+
+    @Benchmark
+    public void filter(Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dashboards/1");
+        request.addHeader("Authorization", authorizationHeader);
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public boolean isRevoked() {
+        return tokenRevocationList.isRevoked(verifiedToken);
+    }
+}
@@ -0,0 +1,55 @@
+package com.dashboardapi.demo.benchmark;
+
+import com.dashboardapi.demo.entity.MyUserDetails;
+import com.dashboardapi.demo.security.VerifiedToken;
+import com.dashboardapi.demo.service.JwtService;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify throughput of the supported jwt.signing.algorithm options.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    @Param({"HS256", "ES256", "RS256"})
+    public SignatureAlgorithm algorithm;
+
+    private JwtService jwtService;
+    private MyUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkFixtures.jwtService(algorithm, false);
+        userDetails = new MyUserDetails("benchmark-user", "USER,ADMIN", 0);
+        token = jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.verifyToken(token);
+    }
+}
@@ -2,8 +2,10 @@ package com.dashboardapi.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SpringbootDashboardapiApplication {
 
 	public static void main(String[] args) {
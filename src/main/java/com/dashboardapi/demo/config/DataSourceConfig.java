@@ -0,0 +1,52 @@
+package com.dashboardapi.demo.config;
+
+import com.dashboardapi.demo.config.ReplicaRoutingDataSource.ReplicaSelection;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Takes the place of the auto-configured DataSource once read replicas are configured. The primary pool is built
+ * from spring.datasource; each replica pool reuses its driver and credentials with its own URL.
+ */
+@Configuration
+@ConditionalOnProperty("dashboards.datasource.replica-urls")
+public class DataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties properties,
+                                               @Value("${dashboards.datasource.replica-urls}") List<String> replicaUrls,
+                                               @Value("${dashboards.datasource.replica-selection:ROUND_ROBIN}")
+                                               ReplicaSelection replicaSelection,
+                                               @Value("${dashboards.datasource.read-your-writes-window:PT5S}")
+                                               Duration readYourWritesWindow,
+                                               MeterRegistry meterRegistry) {
+        HikariDataSource primary = pool(properties, properties.determineUrl(), "primary", meterRegistry);
+        List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicas.add(pool(properties, replicaUrls.get(i).trim(), "replica-" + (i + 1), meterRegistry));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, replicaSelection, readYourWritesWindow, meterRegistry);
+    }
+
+    // Hikari's own metrics are published per pool, since the auto-configured binder only sees the routing DataSource
+    private static HikariDataSource pool(DataSourceProperties properties, String url, String poolName,
+                                         MeterRegistry meterRegistry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        pool.setPoolName(poolName);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
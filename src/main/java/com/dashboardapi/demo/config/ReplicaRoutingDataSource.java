@@ -0,0 +1,178 @@
+package com.dashboardapi.demo.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the connections of read-only transactions to a replica and everything else to the primary. The pool is
+ * picked when the first statement runs rather than when the transaction begins, so the transaction's read-only
+ * flag is known by then. Once a user's read-write transaction commits, that user's reads stay on the primary for
+ * the read-your-writes window, so they see their own change even while the replicas lag behind. Reads that must
+ * not miss anyone's recent commit run inside {@link #readFromPrimary()}.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    public enum ReplicaSelection {
+        ROUND_ROBIN,
+        // Fewest connections in use, by the replica pool's own count
+        LEAST_CONNECTIONS
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final ReplicaSelection selection;
+    private final Cache<String, Boolean> recentWriters;
+    private final AtomicLong nextReplica = new AtomicLong();
+    private final Map<HikariDataSource, Counter> connectionCounters = new IdentityHashMap<>();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    ReplicaSelection selection, Duration readYourWritesWindow,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+        List<HikariDataSource> pools = new ArrayList<>(this.replicas);
+        pools.add(primary);
+        for (HikariDataSource pool : pools) {
+            connectionCounters.put(pool, Counter.builder("dashboards.datasource.connections")
+                    .description("Connections handed out, by the pool that served them")
+                    .tag("pool", pool.getPoolName())
+                    .register(meterRegistry));
+        }
+        setTargetDataSource(new Router());
+    }
+
+    /**
+     * Until the returned scope is closed, connections this thread opens come from the primary even in read-only
+     * transactions, without counting as a write. For reads whose result outlives the request, such as cache loads,
+     * delta-sync watermarks and credential lookups. Scopes nest; has no effect without replicas.
+     */
+    public static PrimaryReads readFromPrimary() {
+        if (PRIMARY_READS.get() != null) {
+            return () -> { };
+        }
+        PRIMARY_READS.set(Boolean.TRUE);
+        return PRIMARY_READS::remove;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    private HikariDataSource route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWriterOnCommit();
+            return primary;
+        }
+        if (replicas.isEmpty() || PRIMARY_READS.get() != null) {
+            return primary;
+        }
+        String userName = currentUserName();
+        if (userName != null && recentWriters.getIfPresent(userName) != null) {
+            return primary;
+        }
+        return selectReplica();
+    }
+
+    private HikariDataSource selectReplica() {
+        int start = (int) Math.floorMod(nextReplica.getAndIncrement(), (long) replicas.size());
+        if (selection == ReplicaSelection.ROUND_ROBIN) {
+            return replicas.get(start);
+        }
+        // Scanning from the round-robin position spreads ties
+        HikariDataSource leastBusy = null;
+        int leastActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariDataSource replica = replicas.get((start + i) % replicas.size());
+            HikariPoolMXBean pool = replica.getHikariPoolMXBean();
+            int active = pool == null ? 0 : pool.getActiveConnections();
+            if (active < leastActive) {
+                leastBusy = replica;
+                leastActive = active;
+            }
+        }
+        return leastBusy;
+    }
+
+    private void rememberWriterOnCommit() {
+        String userName = currentUserName();
+        if (userName == null || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(userName, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUserName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    @FunctionalInterface
+    public interface PrimaryReads extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    private final class Router extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            HikariDataSource pool = route();
+            Connection connection = pool.getConnection();
+            connectionCounters.get(pool).increment();
+            return connection;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            HikariDataSource pool = route();
+            Connection connection = pool.getConnection(username, password);
+            connectionCounters.get(pool).increment();
+            return connection;
+        }
+    }
+}
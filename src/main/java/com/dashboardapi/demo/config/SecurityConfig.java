@@ -1,8 +1,12 @@
 package com.dashboardapi.demo.config;
 
 import com.dashboardapi.demo.filter.JwtAuthFilter;
+import com.dashboardapi.demo.security.PooledPasswordEncoder;
 import com.dashboardapi.demo.service.MyUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -16,12 +20,13 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -31,13 +36,11 @@ public class SecurityConfig {
     private JwtAuthFilter authFilter;
 
     /**
-     * Method implementation for Spring Security Authentication using UserDetailsService
-     * @return UserDetailsService instance
+     * UserDetailsService used for Spring Security Authentication. This is the same cached instance the
+     * JwtAuthFilter uses, so user changes invalidate a single cache.
      */
-    @Bean
-    public UserDetailsService customUserDetailsService() {
-        return new MyUserDetailsService();
-    }
+    @Autowired
+    private MyUserDetailsService myUserDetailsService;
 
     /**
      * Method implementation for Spring Security Authorization using HttpSecurity
@@ -45,7 +48,8 @@ public class SecurityConfig {
      */
 
     @Bean
-    public SecurityFilterChain customSecurityFilterChain(HttpSecurity httpSecurity) throws Exception {
+    public SecurityFilterChain customSecurityFilterChain(HttpSecurity httpSecurity,
+                                                         AuthenticationProvider authenticationProvider) throws Exception {
 
         /*
                 This code ignores the CSRF for specified endpoints
@@ -63,15 +67,19 @@ public class SecurityConfig {
 
         return httpSecurity.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(requests -> requests
+                        // The request was authorized when it started; async dispatches (the change feed ending) carry no token
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.GET, "/dashboards/**").authenticated()
-                        .requestMatchers(HttpMethod.POST, "/users/**","/dashboards","/authenticate").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/users/**","/dashboards","/authenticate","/token/refresh").permitAll()
+                        .requestMatchers("/admin/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/dashboards/**").permitAll()
                         .requestMatchers(HttpMethod.PUT,"/dashboards/**").permitAll()
                         .requestMatchers(HttpMethod.GET,"/management-dashboard/**").permitAll()
+                        .requestMatchers(HttpMethod.GET,"/.well-known/jwks.json").permitAll()
                         .anyRequest().permitAll())
 //                .formLogin(Customizer.withDefaults())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
                 .addFilterBefore(authFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
 
@@ -91,14 +99,23 @@ public class SecurityConfig {
         */
     }
 
+    /**
+     * BCrypt encoder running on its own bounded pool, used both for /authenticate and for new users
+     * @return PasswordEncoder instance
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() { return new BCryptPasswordEncoder(); }
+    public PasswordEncoder passwordEncoder(@Value("${auth.password-hashing.threads:0}") int threads,
+                                           @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${auth.password-hashing.retry-after:1s}") Duration retryAfter,
+                                           MeterRegistry meterRegistry) {
+        return new PooledPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity, retryAfter, meterRegistry);
+    }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
-        authenticationProvider.setUserDetailsService(customUserDetailsService());
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setUserDetailsService(myUserDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
         return authenticationProvider;
     }
 
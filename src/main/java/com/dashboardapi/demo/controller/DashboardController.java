@@ -1,21 +1,48 @@
 package com.dashboardapi.demo.controller;
 
 import com.dashboardapi.demo.dto.AuthRequest;
+import com.dashboardapi.demo.dto.AuthResponse;
+import com.dashboardapi.demo.dto.BulkItemResult;
+import com.dashboardapi.demo.dto.DashboardBulkRequest;
+import com.dashboardapi.demo.dto.DashboardChanges;
+import com.dashboardapi.demo.dto.DashboardPage;
 import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.entity.MyUserDetails;
+import com.dashboardapi.demo.error.DashboardChangesExpiredException;
 import com.dashboardapi.demo.error.DashboardRecordNotFoundException;
+import com.dashboardapi.demo.error.DashboardVersionConflictException;
+import com.dashboardapi.demo.error.InvalidPageCursorException;
+import com.dashboardapi.demo.security.RefreshTokenStore;
+import com.dashboardapi.demo.service.DashboardChangeFeed;
+import com.dashboardapi.demo.service.DashboardListSnapshot;
 import com.dashboardapi.demo.service.DashboardService;
 import com.dashboardapi.demo.service.JwtService;
+import com.dashboardapi.demo.util.AcceptHeaders;
+import com.dashboardapi.demo.util.DashboardETags;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @Slf4j
@@ -30,26 +57,145 @@ public class DashboardController {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DashboardChangeFeed dashboardChangeFeed;
+
+    @Autowired
+    private DashboardListSnapshot dashboardListSnapshot;
+
     @GetMapping("/dashboards")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public List<Dashboard> getAllDashboards() {
+    public ResponseEntity<DashboardPage> getDashboardPage(@RequestParam(value = "after", required = false) String after,
+                                                          @RequestParam(value = "limit", required = false) Integer limit)
+            throws InvalidPageCursorException {
+        log.info("Inside DashboardController.getDashboardPage() method");
+        DashboardPage page = dashboardService.getDashboardPage(after, limit);
+        // A matching If-None-Match is answered with 304 before the body is serialized
+        return ResponseEntity.ok()
+                .eTag(DashboardETags.ofList(page.getItems(), page.getNextCursor()))
+                .body(page);
+    }
+
+    /**
+     * Unbounded list of every dashboard, only served when the caller explicitly asks for it with unpaged=true.
+     * When the Accept header prefers JSON, it is written straight from the pre-serialized list snapshot, gzipped
+     * when the client accepts it; CBOR and Smile, and JSON before the first snapshot exists, are queried and
+     * serialized per request.
+     */
+    @GetMapping(value = "/dashboards", params = "unpaged=true")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<?> getAllDashboards(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Inside DashboardController.getAllDashboards() method");
-        return dashboardService.getAllDashboards();
+        DashboardListSnapshot.Snapshot snapshot = AcceptHeaders.prefersJson(accept) ? dashboardListSnapshot.current() : null;
+        if (snapshot != null) {
+            boolean gzip = AcceptHeaders.acceptsGzip(acceptEncoding);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .eTag(snapshot.eTag());
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(gzip ? snapshot.gzippedJson() : snapshot.json());
+        }
+        List<Dashboard> dashboards = dashboardService.getAllDashboards();
+        return ResponseEntity.ok()
+                .eTag(DashboardETags.ofList(dashboards, null))
+                .body(dashboards);
+    }
+
+    /**
+     * Streams every dashboard as newline-delimited JSON straight to the response, gzipped when the client accepts it.
+     * Memory use does not depend on the number of rows.
+     */
+    @GetMapping(value = "/dashboards/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public void exportDashboards(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                 HttpServletResponse response) throws IOException {
+        log.info("Inside DashboardController.exportDashboards() method");
+        boolean gzip = AcceptHeaders.acceptsGzip(acceptEncoding);
+        response.setContentType("application/x-ndjson");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        ObjectWriter dashboardWriter = objectMapper.writerFor(Dashboard.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (OutputStream outputStream = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), 8192)
+                : response.getOutputStream();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            dashboardService.exportDashboards(dashboard -> {
+                try {
+                    dashboardWriter.writeValue(generator, dashboard);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Delta sync: dashboards created, updated or deleted after the since watermark, with the watermark to use next.
+     * Without since, every dashboard is returned as created. 410 means the watermark is too old and the client must
+     * start over without one.
+     */
+    @GetMapping("/dashboards/changes")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public DashboardChanges getDashboardChanges(@RequestParam(value = "since", required = false) String since,
+                                                @RequestParam(value = "limit", required = false) Integer limit)
+            throws InvalidPageCursorException, DashboardChangesExpiredException {
+        log.info("Inside DashboardController.getDashboardChanges() method");
+        return dashboardService.getDashboardChanges(since, limit);
+    }
+
+    /**
+     * Server-Sent Events stream of committed creates, updates and deletes. A reconnecting client sends the id of
+     * the last event it saw as Last-Event-ID and receives what it missed, or a reset event when that is no longer
+     * available.
+     */
+    @GetMapping(value = "/dashboards/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('USER')")
+    public SseEmitter streamDashboardChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("Inside DashboardController.streamDashboardChanges() method");
+        return dashboardChangeFeed.subscribe(lastEventId);
     }
 
     @GetMapping("/dashboards/{id}")
     @PreAuthorize("hasAuthority('USER')")
-    public Dashboard getDashboardById(@PathVariable("id") Long dashboardId) throws DashboardRecordNotFoundException {
+    public ResponseEntity<Dashboard> getDashboardById(@PathVariable("id") Long dashboardId) throws DashboardRecordNotFoundException {
         log.info("Got id {} for fetching the details", dashboardId);
         /*return ResponseHandler.responseBuilder(ApplicationConstants.REQUESTED_DASHBOARD_DETAILS_ARE_GIVEN_HERE,
                 HttpStatus.OK, dashboardService.getDashboardById(dashboardId));*/
-        return dashboardService.getDashboardById(dashboardId);
+        // Usually served from the dashboard cache, so a 304 for an unchanged dashboard costs no query either
+        Dashboard dashboard = dashboardService.getDashboardById(dashboardId);
+        return ResponseEntity.ok()
+                .eTag(DashboardETags.of(dashboard))
+                .body(dashboard);
     }
 
     @PostMapping("/dashboards")
-    public Dashboard saveDashboard(@RequestBody @Valid Dashboard dashboard) {
+    public ResponseEntity<Dashboard> saveDashboard(@RequestBody @Valid Dashboard dashboard) {
         log.info("Inside DashboardController.saveDashboard() method");
-        return dashboardService.saveDashboard(dashboard);
+        Dashboard savedDashboard = dashboardService.saveDashboard(dashboard);
+        return ResponseEntity.ok()
+                .eTag(DashboardETags.of(savedDashboard))
+                .body(savedDashboard);
+    }
+
+    @PostMapping("/dashboards/bulk")
+    public List<BulkItemResult> bulkWriteDashboards(@RequestBody DashboardBulkRequest bulkRequest) {
+        log.info("Inside DashboardController.bulkWriteDashboards() method");
+        return dashboardService.bulkWriteDashboards(bulkRequest);
     }
 
     @DeleteMapping("/dashboards/{id}")
@@ -59,20 +205,33 @@ public class DashboardController {
     }
 
     @PutMapping("/dashboards/{id}")
-    public Dashboard updateDashboard(@PathVariable("id") Long dashboardId, @RequestBody @Valid Dashboard dashboard) throws DashboardRecordNotFoundException {
+    public ResponseEntity<Dashboard> updateDashboard(@PathVariable("id") Long dashboardId,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @RequestBody @Valid Dashboard dashboard)
+            throws DashboardRecordNotFoundException, DashboardVersionConflictException {
         log.info("Received id {} for update", dashboardId);
-        return dashboardService.updateDashboard(dashboardId, dashboard);
+        Dashboard updatedDashboard = ifMatch == null
+                ? dashboardService.updateDashboard(dashboardId, dashboard)
+                : dashboardService.updateDashboard(dashboardId, dashboard,
+                        DashboardETags.expectedVersion(ifMatch, dashboardId));
+        return ResponseEntity.ok()
+                .eTag(DashboardETags.of(updatedDashboard))
+                .body(updatedDashboard);
     }
 
     @PostMapping("/authenticate")
-    public String authenticateAndGetToken(@RequestBody AuthRequest authRequest) {
+    public AuthResponse authenticateAndGetToken(@RequestBody AuthRequest authRequest) {
         Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(authRequest.getUserName(),
                                                         authRequest.getPassword()));
         if(authentication.isAuthenticated()) {
             log.info("User Authentication is successful for username: {} password: {}",
                             authRequest.getUserName(), authRequest.getPassword());
-            return jwtService.generateToken(authRequest.getUserName());
+            String accessToken = authentication.getPrincipal() instanceof MyUserDetails myUserDetails
+                    ? jwtService.generateToken(myUserDetails)
+                    : jwtService.generateToken(authRequest.getUserName());
+            return new AuthResponse(accessToken, refreshTokenStore.issue(authRequest.getUserName()),
+                    jwtService.getAccessTokenTtl().toSeconds());
         } else {
             throw new UsernameNotFoundException("invalid user request !");
         }
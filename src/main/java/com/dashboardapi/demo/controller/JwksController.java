@@ -0,0 +1,29 @@
+package com.dashboardapi.demo.controller;
+
+import com.dashboardapi.demo.security.SigningKeyRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+public class JwksController {
+
+    @Autowired
+    private SigningKeyRegistry signingKeyRegistry;
+
+    /**
+     * Publishes the public verification keys. Next keys are published a full rotation before use,
+     * so verifiers can cache this for a while.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJsonWebKeySet() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(signingKeyRegistry.getJsonWebKeySet());
+    }
+}
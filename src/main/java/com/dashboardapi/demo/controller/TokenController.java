@@ -0,0 +1,92 @@
+package com.dashboardapi.demo.controller;
+
+import com.dashboardapi.demo.dto.AuthResponse;
+import com.dashboardapi.demo.dto.RefreshTokenRequest;
+import com.dashboardapi.demo.dto.RevokeTokenRequest;
+import com.dashboardapi.demo.entity.MyUserDetails;
+import com.dashboardapi.demo.error.InvalidRefreshTokenException;
+import com.dashboardapi.demo.error.InvalidTokenException;
+import com.dashboardapi.demo.security.RefreshTokenStore;
+import com.dashboardapi.demo.security.TokenRevocationList;
+import com.dashboardapi.demo.security.VerifiedToken;
+import com.dashboardapi.demo.service.JwtService;
+import com.dashboardapi.demo.service.MyUserDetailsService;
+import com.dashboardapi.demo.util.ApplicationConstants;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Slf4j
+public class TokenController {
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MyUserDetailsService myUserDetailsService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    /**
+     * Exchanges a refresh token for a new access token and the next refresh token, without re-checking the password.
+     */
+    @PostMapping("/token/refresh")
+    public AuthResponse refreshToken(@RequestBody RefreshTokenRequest refreshTokenRequest)
+            throws InvalidRefreshTokenException {
+        if (refreshTokenRequest.getRefreshToken() == null) {
+            throw new InvalidRefreshTokenException(ApplicationConstants.REFRESH_TOKEN_INVALID);
+        }
+        RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(refreshTokenRequest.getRefreshToken());
+        MyUserDetails myUserDetails;
+        try {
+            myUserDetails = (MyUserDetails) myUserDetailsService.loadUserByUsername(rotation.userName());
+        } catch (UsernameNotFoundException e) {
+            throw new InvalidRefreshTokenException(ApplicationConstants.REFRESH_TOKEN_INVALID);
+        }
+        log.info("Refreshed access token for username: {}", rotation.userName());
+        return new AuthResponse(jwtService.generateToken(myUserDetails), rotation.refreshToken(),
+                jwtService.getAccessTokenTtl().toSeconds());
+    }
+
+    @PostMapping("/admin/tokens/revoke")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public String revokeToken(@RequestBody RevokeTokenRequest revokeTokenRequest) throws InvalidTokenException {
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = jwtService.verifyToken(revokeTokenRequest.getToken());
+        } catch (ExpiredJwtException e) {
+            // An expired token is already rejected everywhere
+            return ApplicationConstants.TOKEN_REVOKED_SUCCESSFULLY;
+        } catch (JwtException | IllegalArgumentException e) {
+            // Malformed, badly signed, signed with an unknown key, or no token at all
+            throw new InvalidTokenException(ApplicationConstants.TOKEN_INVALID);
+        }
+        if (verifiedToken.getId() == null) {
+            // Tokens issued before jti was introduced can only be revoked per user
+            tokenRevocationList.revokeUser(verifiedToken.getSubject());
+        } else {
+            tokenRevocationList.revokeToken(verifiedToken.getId(), verifiedToken.getExpiration());
+        }
+        return ApplicationConstants.TOKEN_REVOKED_SUCCESSFULLY;
+    }
+
+    @PostMapping("/admin/users/{userName}/revoke-tokens")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public String revokeUserTokens(@PathVariable("userName") String userName) {
+        tokenRevocationList.revokeUser(userName);
+        refreshTokenStore.revokeUser(userName);
+        return ApplicationConstants.USER_TOKENS_REVOKED_SUCCESSFULLY;
+    }
+}
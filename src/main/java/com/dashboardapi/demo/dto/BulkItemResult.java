@@ -0,0 +1,21 @@
+package com.dashboardapi.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+
+    public enum Operation { CREATE, UPDATE, DELETE }
+
+    private Operation operation;
+    // Position of the item in its list of the request
+    private int index;
+    private Long id;
+    private HttpStatus status;
+    private String message;
+}
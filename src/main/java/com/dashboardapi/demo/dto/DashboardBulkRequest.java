@@ -0,0 +1,24 @@
+package com.dashboardapi.demo.dto;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardBulkRequest {
+    @Builder.Default
+    private List<Dashboard> creates = new ArrayList<>();
+    // Each update must carry the id of the dashboard it changes
+    @Builder.Default
+    private List<Dashboard> updates = new ArrayList<>();
+    @Builder.Default
+    private List<Long> deletes = new ArrayList<>();
+}
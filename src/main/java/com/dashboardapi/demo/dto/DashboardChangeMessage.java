@@ -0,0 +1,7 @@
+package com.dashboardapi.demo.dto;
+
+import com.dashboardapi.demo.entity.Dashboard;
+
+// Data of a change feed event; dashboard is null for deletes
+public record DashboardChangeMessage(String type, Long id, Dashboard dashboard) {
+}
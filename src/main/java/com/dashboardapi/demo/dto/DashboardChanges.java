@@ -0,0 +1,21 @@
+package com.dashboardapi.demo.dto;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardChanges {
+    // Dashboards created or updated after the watermark; apply these before the deletes
+    private List<Dashboard> updated;
+    private List<Long> deleted;
+    // Opaque watermark to pass as since on the next call
+    private String watermark;
+    // More changes are already available; call again right away with the new watermark
+    private boolean hasMore;
+}
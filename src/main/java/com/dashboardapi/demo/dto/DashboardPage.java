@@ -0,0 +1,17 @@
+package com.dashboardapi.demo.dto;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardPage {
+    private List<Dashboard> items;
+    // Opaque cursor for the next page, null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,29 @@
+package com.dashboardapi.demo.dto;
+
+import com.dashboardapi.demo.entity.Dashboard;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of a dashboard row, safe to share between threads and to keep after the persistence context
+ * that loaded it is gone.
+ */
+public record DashboardSnapshot(Long id, String title, LocalDateTime createdAt, LocalDateTime updatedAt,
+                                Integer version) {
+
+    public static DashboardSnapshot from(Dashboard dashboard) {
+        return new DashboardSnapshot(dashboard.getId(), dashboard.getTitle(),
+                dashboard.getCreatedAt(), dashboard.getUpdatedAt(), dashboard.getVersion());
+    }
+
+    // A fresh, unmanaged entity per call, so callers may modify it freely
+    public Dashboard toDashboard() {
+        return Dashboard.builder()
+                .id(id)
+                .title(title)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.dashboardapi.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records that a dashboard was deleted, so delta sync clients learn about deletes. Kept for
+ * {@code dashboards.changes.tombstone-retention}; clients with an older watermark must resync in full.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_dashboard_tombstone_deleted_at_id", columnList = "deleted_at, dashboard_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardTombstone implements Persistable<Long> {
+
+    @Id
+    @Column(name = "dashboard_id")
+    private Long dashboardId;
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Tombstones are only ever inserted, so save() can persist without selecting first
+    @Override
+    public Long getId() {
+        return dashboardId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
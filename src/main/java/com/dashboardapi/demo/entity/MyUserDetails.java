@@ -13,11 +13,26 @@ public class MyUserDetails implements UserDetails {
     private String userName;
     private String password;
     private List<GrantedAuthority> authorities;
+    private Integer version;
 
     public MyUserDetails(User user) {
         userName = user.getUserName();
         password = user.getPassword();
-        authorities = Arrays.stream(user.getRoles().split(","))
+        authorities = parseAuthorities(user.getRoles());
+        version = user.getVersion();
+    }
+
+    /**
+     * Builds the details from token claims alone, without a password, for stateless authorization.
+     */
+    public MyUserDetails(String userName, String roles, Integer version) {
+        this.userName = userName;
+        this.authorities = parseAuthorities(roles);
+        this.version = version;
+    }
+
+    private static List<GrantedAuthority> parseAuthorities(String roles) {
+        return Arrays.stream(roles.split(","))
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
     }
@@ -29,6 +44,14 @@ public class MyUserDetails implements UserDetails {
     @Override
     public List<GrantedAuthority> getAuthorities() { return authorities; }
 
+    public Integer getVersion() { return version; }
+
+    public String getRoles() {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+    }
+
     @Override
     public boolean isAccountNonExpired() { return true; }
 
@@ -1,9 +1,12 @@
 package com.dashboardapi.demo.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -20,5 +23,10 @@ public class User {
     private String userName;
     private String password;
     private String roles;
+    // Bumped on every change to the user, and stamped into issued tokens so stale role claims can be detected.
+    @Version
+    @Column(columnDefinition = "INT DEFAULT 0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer version;
 
 }
@@ -0,0 +1,5 @@
+package com.dashboardapi.demo.error;
+
+public class DashboardChangesExpiredException extends Exception{
+    public DashboardChangesExpiredException(String message) { super(message); }
+}
@@ -1,5 +1,6 @@
 package com.dashboardapi.demo.error;
 
 public class DashboardRecordNotFoundException extends Exception{
-    public DashboardRecordNotFoundException(String message) { super(message); }
+    // Thrown for every unknown id, mostly from the negative cache; nobody reads its stack trace, so none is captured
+    public DashboardRecordNotFoundException(String message) { super(message, null, false, false); }
 }
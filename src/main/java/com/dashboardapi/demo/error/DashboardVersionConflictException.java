@@ -0,0 +1,5 @@
+package com.dashboardapi.demo.error;
+
+public class DashboardVersionConflictException extends Exception{
+    public DashboardVersionConflictException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package com.dashboardapi.demo.error;
+
+public class InvalidPageCursorException extends Exception{
+    public InvalidPageCursorException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package com.dashboardapi.demo.error;
+
+public class InvalidRefreshTokenException extends Exception{
+    public InvalidRefreshTokenException(String message) { super(message); }
+}
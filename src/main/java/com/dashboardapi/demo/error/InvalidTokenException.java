@@ -0,0 +1,5 @@
+package com.dashboardapi.demo.error;
+
+public class InvalidTokenException extends Exception{
+    public InvalidTokenException(String message) { super(message); }
+}
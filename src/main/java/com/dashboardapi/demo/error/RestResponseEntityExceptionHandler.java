@@ -1,8 +1,18 @@
 package com.dashboardapi.demo.error;
 
 import com.dashboardapi.demo.entity.ErrorMessage;
+import com.dashboardapi.demo.util.AcceptHeaders;
+import com.dashboardapi.demo.util.ApplicationConstants;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -11,14 +21,118 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 @RestControllerAdvice
 @ResponseStatus
 public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // The JSON of the usual not-found ErrorMessage, serialized once instead of per 404
+    private byte[] dashboardRecordNotPresentBody;
+
+    @PostConstruct
+    void serializeDashboardRecordNotPresentBody() throws JsonProcessingException {
+        dashboardRecordNotPresentBody = objectMapper.writeValueAsBytes(
+                new ErrorMessage(HttpStatus.NOT_FOUND, ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT, null));
+    }
+
+    // The precomputed body is JSON; other accepted types get the ErrorMessage rendered by the message converters
     @ExceptionHandler(DashboardRecordNotFoundException.class)
-    public ResponseEntity<ErrorMessage> dashboardRecordNotFoundException(DashboardRecordNotFoundException
-                                                                                     dashboardRecordNotFoundException) {
+    public ResponseEntity<?> dashboardRecordNotFoundException(DashboardRecordNotFoundException
+                                                                      dashboardRecordNotFoundException,
+                                                              HttpServletRequest request) {
 
+        if (ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT.equals(dashboardRecordNotFoundException.getMessage())
+                && AcceptHeaders.prefersJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .body(dashboardRecordNotPresentBody);
+        }
         ErrorMessage errorMessage = new ErrorMessage(HttpStatus.NOT_FOUND,
                                         dashboardRecordNotFoundException.getMessage(),
                                         dashboardRecordNotFoundException.getCause());
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                                 .body(errorMessage);
     }
+
+    @ExceptionHandler(DashboardVersionConflictException.class)
+    public ResponseEntity<ErrorMessage> dashboardVersionConflictException(DashboardVersionConflictException
+                                                                                  dashboardVersionConflictException) {
+
+        ErrorMessage errorMessage = new ErrorMessage(HttpStatus.PRECONDITION_FAILED,
+                                        dashboardVersionConflictException.getMessage(),
+                                        dashboardVersionConflictException.getCause());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                                .body(errorMessage);
+    }
+
+    // Another update committed first: a failed precondition when the client sent If-Match, otherwise a plain conflict
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorMessage> objectOptimisticLockingFailureException(ObjectOptimisticLockingFailureException
+                                                                                        optimisticLockingFailureException,
+                                                                                HttpServletRequest request) {
+
+        HttpStatus status = request.getHeader(HttpHeaders.IF_MATCH) == null
+                ? HttpStatus.CONFLICT
+                : HttpStatus.PRECONDITION_FAILED;
+        ErrorMessage errorMessage = new ErrorMessage(status,
+                                        ApplicationConstants.DASHBOARD_VERSION_CONFLICT,
+                                        null);
+        return ResponseEntity.status(status)
+                                .body(errorMessage);
+    }
+
+    @ExceptionHandler(DashboardChangesExpiredException.class)
+    public ResponseEntity<ErrorMessage> dashboardChangesExpiredException(DashboardChangesExpiredException
+                                                                                 dashboardChangesExpiredException) {
+
+        ErrorMessage errorMessage = new ErrorMessage(HttpStatus.GONE,
+                                        dashboardChangesExpiredException.getMessage(),
+                                        dashboardChangesExpiredException.getCause());
+        return ResponseEntity.status(HttpStatus.GONE)
+                                .body(errorMessage);
+    }
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<ErrorMessage> passwordHashingRejectedException(PasswordHashingRejectedException
+                                                                                 passwordHashingRejectedException) {
+
+        ErrorMessage errorMessage = new ErrorMessage(HttpStatus.TOO_MANY_REQUESTS,
+                                        passwordHashingRejectedException.getMessage(),
+                                        passwordHashingRejectedException.getCause());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                                .header(HttpHeaders.RETRY_AFTER,
+                                        String.valueOf(passwordHashingRejectedException.getRetryAfter().toSeconds()))
+                                .body(errorMessage);
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<ErrorMessage> invalidRefreshTokenException(InvalidRefreshTokenException
+                                                                             invalidRefreshTokenException) {
+
+        ErrorMessage errorMessage = new ErrorMessage(HttpStatus.UNAUTHORIZED,
+                                        invalidRefreshTokenException.getMessage(),
+                                        invalidRefreshTokenException.getCause());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(errorMessage);
+    }
+
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<ErrorMessage> invalidTokenException(InvalidTokenException invalidTokenException) {
+
+        ErrorMessage errorMessage = new ErrorMessage(HttpStatus.BAD_REQUEST,
+                                        invalidTokenException.getMessage(),
+                                        invalidTokenException.getCause());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                .body(errorMessage);
+    }
+
+    @ExceptionHandler(InvalidPageCursorException.class)
+    public ResponseEntity<ErrorMessage> invalidPageCursorException(InvalidPageCursorException
+                                                                           invalidPageCursorException) {
+
+        ErrorMessage errorMessage = new ErrorMessage(HttpStatus.BAD_REQUEST,
+                                        invalidPageCursorException.getMessage(),
+                                        invalidPageCursorException.getCause());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                .body(errorMessage);
+    }
 }
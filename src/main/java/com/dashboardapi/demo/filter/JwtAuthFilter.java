@@ -1,5 +1,9 @@
 package com.dashboardapi.demo.filter;
 
+import com.dashboardapi.demo.entity.MyUserDetails;
+import com.dashboardapi.demo.security.AuthorizationMode;
+import com.dashboardapi.demo.security.TokenRevocationList;
+import com.dashboardapi.demo.security.VerifiedToken;
 import com.dashboardapi.demo.service.JwtService;
 import com.dashboardapi.demo.service.MyUserDetailsService;
 import jakarta.servlet.FilterChain;
@@ -7,8 +11,8 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -26,18 +30,27 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private MyUserDetailsService myUserDetailsService;
 
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Value("${jwt.authorization-mode:DATABASE}")
+    private AuthorizationMode authorizationMode;
+
+    @Value("${jwt.revocation.enabled:true}")
+    private boolean revocationCheckEnabled;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
+        VerifiedToken verifiedToken = null;
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            username = jwtService.extractUsername(token);
+            verifiedToken = jwtService.verifyToken(authHeader.substring(7));
         }
-        if (username !=null && SecurityContextHolder.getContext().getAuthentication()==null) {
-            UserDetails myUserDetails = myUserDetailsService.loadUserByUsername(username);
-            if (jwtService.validateToken(token, myUserDetails)) {
+        if (verifiedToken != null && verifiedToken.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication()==null
+                && !(revocationCheckEnabled && tokenRevocationList.isRevoked(verifiedToken))) {
+            UserDetails myUserDetails = loadUserDetails(verifiedToken);
+            if (jwtService.validateToken(verifiedToken, myUserDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(myUserDetails,
                                                                     null, myUserDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -46,4 +59,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails loadUserDetails(VerifiedToken verifiedToken) {
+        if (authorizationMode == AuthorizationMode.TOKEN) {
+            MyUserDetails tokenUserDetails = jwtService.extractUserDetails(verifiedToken);
+            // Tokens issued without role claims, or before a change to the user, fall back to the database lookup
+            if (tokenUserDetails != null
+                    && !myUserDetailsService.isOutdated(tokenUserDetails.getUsername(), tokenUserDetails.getVersion())) {
+                return tokenUserDetails;
+            }
+        }
+        return myUserDetailsService.loadUserByUsername(verifiedToken.getSubject());
+    }
 }
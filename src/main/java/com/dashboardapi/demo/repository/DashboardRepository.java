@@ -1,11 +1,68 @@
 package com.dashboardapi.demo.repository;
 
+import com.dashboardapi.demo.dto.DashboardSnapshot;
 import com.dashboardapi.demo.entity.Dashboard;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DashboardRepository extends JpaRepository<Dashboard, Long> {
 
+    /**
+     * Reads rows straight into immutable snapshots: no managed entities, so nothing is registered in the
+     * persistence context, snapshotted for dirty checking or flushed. Used by every read that only returns data.
+     */
+    String SELECT_SNAPSHOT = "select new com.dashboardapi.demo.dto.DashboardSnapshot("
+            + "d.id, d.title, d.createdAt, d.updatedAt, d.version) from Dashboard d";
+
     Dashboard findByTitle(String Title);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SNAPSHOT + " where d.id = :id")
+    Optional<DashboardSnapshot> findSnapshotById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_SNAPSHOT + " order by d.id")
+    List<DashboardSnapshot> findAllSnapshots();
+
+    // Keyset page: seeks on the primary key index, so deep pages cost the same as the first one
+    @Transactional(readOnly = true)
+    @Query(SELECT_SNAPSHOT + " where d.id > :afterId order by d.id")
+    List<DashboardSnapshot> findSnapshotsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Returns the affected-row count, so a missing record is detected without loading it first
+    @Transactional
+    @Modifying
+    @Query("delete from Dashboard d where d.id = :id")
+    int deleteDashboardById(@Param("id") Long id);
+
+    // Keyset over (updatedAt, id), bounded by the horizon so rows still being committed are left for the next sync
+    @Transactional(readOnly = true)
+    @Query(SELECT_SNAPSHOT
+            + " where (d.updatedAt > :after or (d.updatedAt = :after and d.id > :afterId))"
+            + " and d.updatedAt <= :horizon order by d.updatedAt, d.id")
+    List<DashboardSnapshot> findChangedAfter(@Param("after") LocalDateTime after, @Param("afterId") Long afterId,
+                                     @Param("horizon") LocalDateTime horizon, Limit limit);
+
+    @Query("select d.id from Dashboard d where d.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Must be consumed inside a transaction and closed; rows are fetched from the server in chunks of the fetch size
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_SNAPSHOT + " order by d.id")
+    Stream<DashboardSnapshot> streamAllOrderedById();
 }
@@ -0,0 +1,28 @@
+package com.dashboardapi.demo.repository;
+
+import com.dashboardapi.demo.entity.DashboardTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DashboardTombstoneRepository extends JpaRepository<DashboardTombstone, Long> {
+
+    @Query("select t from DashboardTombstone t"
+            + " where (t.deletedAt > :after or (t.deletedAt = :after and t.dashboardId > :afterId))"
+            + " and t.deletedAt <= :horizon order by t.deletedAt, t.dashboardId")
+    List<DashboardTombstone> findDeletedAfter(@Param("after") LocalDateTime after, @Param("afterId") Long afterId,
+                                              @Param("horizon") LocalDateTime horizon, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from DashboardTombstone t where t.deletedAt < :cutoff")
+    int deleteDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -3,11 +3,14 @@ package com.dashboardapi.demo.repository;
 import com.dashboardapi.demo.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
 
+    // Read-only, so it can be served by a replica
+    @Transactional(readOnly = true)
     Optional<User> findByUserName(String userName);
 }
@@ -3,18 +3,17 @@ package com.dashboardapi.demo.response;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class ResponseHandler {
 
     public static ResponseEntity<Object> responseBuilder(String message,
                                                          HttpStatus httpStatus, Object responseObject) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", message);
-        response.put("httpStatus", httpStatus);
-        response.put("data", responseObject);
+        return new ResponseEntity<>(new ResponseBody(responseObject, httpStatus, message), httpStatus);
+    }
 
-        return new ResponseEntity<>(response, httpStatus);
+    /**
+     * Response envelope. Replaces a HashMap built per response; the components are declared in the order that
+     * map wrote its keys, so the JSON is unchanged.
+     */
+    public record ResponseBody(Object data, HttpStatus httpStatus, String message) {
     }
 }
@@ -0,0 +1,56 @@
+package com.dashboardapi.demo.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes a LocalDateTime as yyyy-MM-dd HH:mm:ss, the same text as @JsonFormat with that pattern, straight from
+ * the date fields instead of going through a DateTimeFormatter on every value.
+ */
+public class TimestampSerializer extends StdSerializer<LocalDateTime> {
+
+    public static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+
+    private static final int LENGTH = PATTERN.length();
+
+    public TimestampSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        int year = value.getYear();
+        // yyyy is the year of era: years before 1 or past 9999 need the formatter's era and sign handling
+        if (year < 1 || year > 9999) {
+            generator.writeString(FORMATTER.format(value));
+            return;
+        }
+        char[] text = new char[LENGTH];
+        writeDigits(text, 0, year, 4);
+        text[4] = '-';
+        writeDigits(text, 5, value.getMonthValue(), 2);
+        text[7] = '-';
+        writeDigits(text, 8, value.getDayOfMonth(), 2);
+        text[10] = ' ';
+        writeDigits(text, 11, value.getHour(), 2);
+        text[13] = ':';
+        writeDigits(text, 14, value.getMinute(), 2);
+        text[16] = ':';
+        writeDigits(text, 17, value.getSecond(), 2);
+        generator.writeString(text, 0, LENGTH);
+    }
+
+    private static void writeDigits(char[] text, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.dashboardapi.demo.security;
+
+/**
+ * How {@link com.dashboardapi.demo.filter.JwtAuthFilter} rebuilds the caller's authorities for a bearer token.
+ */
+public enum AuthorizationMode {
+    /** Load the user from the database on every request. */
+    DATABASE,
+    /** Use the roles carried in the token claims and never touch the database. */
+    TOKEN
+}
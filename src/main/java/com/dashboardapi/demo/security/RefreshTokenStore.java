@@ -0,0 +1,123 @@
+package com.dashboardapi.demo.security;
+
+import com.dashboardapi.demo.error.InvalidRefreshTokenException;
+import com.dashboardapi.demo.util.ApplicationConstants;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory store of opaque, rotating refresh tokens.
+ * <p>
+ * Every refresh token belongs to a family started at login. Redeeming a token marks it as used and issues
+ * the next token of the family; presenting a used token again means it leaked, so the whole family is revoked.
+ * Entries are keyed by the token digest and expire with the token, so the store prunes itself.
+ */
+@Component
+@Slf4j
+public class RefreshTokenStore {
+
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Duration ttl;
+    private final Cache<ByteBuffer, RefreshTokenEntry> tokens;
+    private final Cache<Long, Boolean> revokedFamilies;
+
+    public RefreshTokenStore(@Value("${jwt.refresh-token.ttl:7d}") Duration ttl,
+                             @Value("${jwt.refresh-token.maximum-size:100000}") long maximumSize) {
+        this.ttl = ttl;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilEntryExpiry())
+                .build();
+        // No size bound: evicting a revocation early would make the family's tokens redeemable again. A revoked
+        // family gets no new tokens, so its entry is only needed until the last one issued before it expires
+        this.revokedFamilies = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Starts a new token family for a freshly authenticated user.
+     */
+    public String issue(String userName) {
+        return issue(userName, secureRandom.nextLong());
+    }
+
+    /**
+     * Redeems a refresh token and returns the next token of its family.
+     * @throws InvalidRefreshTokenException when the token is unknown, expired, revoked or already used
+     */
+    public Rotation rotate(String refreshToken) throws InvalidRefreshTokenException {
+        ByteBuffer key = TokenDigest.sha256(refreshToken);
+        RefreshTokenEntry entry = tokens.getIfPresent(key);
+        if (entry == null || entry.expiresAt() < System.currentTimeMillis()
+                || revokedFamilies.getIfPresent(entry.familyId()) != null) {
+            throw new InvalidRefreshTokenException(ApplicationConstants.REFRESH_TOKEN_INVALID);
+        }
+        if (entry.used() || !tokens.asMap().replace(key, entry, entry.markUsed())) {
+            revokedFamilies.put(entry.familyId(), Boolean.TRUE);
+            log.warn("Refresh token reuse detected for user {}, revoking the token family", entry.userName());
+            throw new InvalidRefreshTokenException(ApplicationConstants.REFRESH_TOKEN_INVALID);
+        }
+        return new Rotation(entry.userName(), issue(entry.userName(), entry.familyId()));
+    }
+
+    /**
+     * Revokes every token family of the user, so none of their refresh tokens can be redeemed again.
+     */
+    public void revokeUser(String userName) {
+        tokens.asMap().values().stream()
+                .filter(entry -> entry.userName().equals(userName))
+                .forEach(entry -> revokedFamilies.put(entry.familyId(), Boolean.TRUE));
+    }
+
+    public Duration getTtl() { return ttl; }
+
+    private String issue(String userName, long familyId) {
+        byte[] tokenBytes = new byte[32];
+        secureRandom.nextBytes(tokenBytes);
+        String refreshToken = TOKEN_ENCODER.encodeToString(tokenBytes);
+        tokens.put(TokenDigest.sha256(refreshToken),
+                new RefreshTokenEntry(userName, familyId, System.currentTimeMillis() + ttl.toMillis(), false));
+        return refreshToken;
+    }
+
+    public record Rotation(String userName, String refreshToken) {
+    }
+
+    private record RefreshTokenEntry(String userName, long familyId, long expiresAt, boolean used) {
+
+        RefreshTokenEntry markUsed() {
+            return new RefreshTokenEntry(userName, familyId, expiresAt, true);
+        }
+    }
+
+    private static final class UntilEntryExpiry implements Expiry<ByteBuffer, RefreshTokenEntry> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, RefreshTokenEntry entry, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(entry.expiresAt() - System.currentTimeMillis(), 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, RefreshTokenEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, RefreshTokenEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
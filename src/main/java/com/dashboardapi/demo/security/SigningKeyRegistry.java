@@ -0,0 +1,186 @@
+package com.dashboardapi.demo.security;
+
+import com.dashboardapi.demo.service.JwtService;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signing keys identified by {@code kid}. Tokens are signed with the active key; verification looks the parsed
+ * key up by the token's {@code kid}, so keys are never re-derived per request.
+ * <p>
+ * With an asymmetric algorithm the keys rotate on a schedule. The next key is published in the JWKS one rotation
+ * before it is used, and retired keys stay available for verification until every token they signed has expired.
+ * Tokens without a {@code kid}, issued before the registry existed, verify against the legacy shared secret. That
+ * secret is public, so with an asymmetric algorithm it is not registered at all: anyone could sign a token with it,
+ * and legacy and kid-less tokens are rejected outright.
+ */
+@Component
+@Slf4j
+public class SigningKeyRegistry {
+
+    public static final String LEGACY_KEY_ID = "legacy-hs256";
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final SignatureAlgorithm algorithm;
+    private final Duration retention;
+    private final Clock clock;
+    private final Map<String, SigningKey> keys = new ConcurrentHashMap<>();
+    private volatile SigningKey activeKey;
+    private volatile SigningKey nextKey;
+
+    @Autowired
+    public SigningKeyRegistry(@Value("${jwt.signing.algorithm:HS256}") SignatureAlgorithm algorithm,
+                              @Value("${jwt.access-token.ttl:15m}") Duration accessTokenTtl) {
+        this(algorithm, accessTokenTtl, Clock.systemUTC());
+    }
+
+    SigningKeyRegistry(SignatureAlgorithm algorithm, Duration accessTokenTtl, Clock clock) {
+        this.algorithm = algorithm;
+        this.retention = accessTokenTtl.plusMinutes(1);
+        this.clock = clock;
+        if (algorithm == SignatureAlgorithm.HS256) {
+            SigningKey legacyKey = new SigningKey(LEGACY_KEY_ID, SignatureAlgorithm.HS256,
+                    Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtService.SECRET)), null, null);
+            keys.put(LEGACY_KEY_ID, legacyKey);
+            activeKey = legacyKey;
+        } else if (algorithm == SignatureAlgorithm.ES256 || algorithm == SignatureAlgorithm.RS256) {
+            activeKey = generateKey();
+            nextKey = generateKey();
+        } else {
+            throw new IllegalArgumentException("Unsupported jwt.signing.algorithm " + algorithm);
+        }
+        log.info("Signing tokens with {} key {}", algorithm, activeKey.keyId());
+    }
+
+    public SigningKey getActiveKey() {
+        return activeKey;
+    }
+
+    /**
+     * @return the verification key for the {@code kid}, or null when the key is unknown, or retired for longer than
+     * any token it signed can live, whether or not a rotation has dropped it yet
+     */
+    public Key getVerificationKey(String keyId) {
+        SigningKey signingKey = keys.get(keyId == null ? LEGACY_KEY_ID : keyId);
+        if (signingKey == null || isExpired(signingKey, clock.instant())) {
+            return null;
+        }
+        return signingKey.verificationKey();
+    }
+
+    /**
+     * Promotes the pre-published next key, generates a new next key and drops keys retired long enough ago
+     * that nothing they signed is still valid. The shared HS256 secret is never rotated.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.rotation-interval:PT24H}",
+            initialDelayString = "${jwt.signing.rotation-interval:PT24H}")
+    public void rotate() {
+        if (algorithm == SignatureAlgorithm.HS256) {
+            return;
+        }
+        Instant now = clock.instant();
+        SigningKey retiredKey = activeKey.retire(now);
+        keys.put(retiredKey.keyId(), retiredKey);
+        activeKey = nextKey;
+        nextKey = generateKey();
+        keys.values().removeIf(key -> isExpired(key, now));
+        log.info("Rotated signing key, now signing with {}", activeKey.keyId());
+    }
+
+    /**
+     * Public keys in JWK Set format, for services that verify our tokens locally.
+     */
+    public Map<String, Object> getJsonWebKeySet() {
+        List<Map<String, Object>> jsonWebKeys = new ArrayList<>();
+        for (SigningKey signingKey : keys.values()) {
+            if (signingKey.verificationKey() instanceof ECPublicKey ecPublicKey) {
+                Map<String, Object> jwk = jwkHeader(signingKey, "EC");
+                jwk.put("crv", "P-256");
+                jwk.put("x", encodeUnsigned(ecPublicKey.getW().getAffineX(), 32));
+                jwk.put("y", encodeUnsigned(ecPublicKey.getW().getAffineY(), 32));
+                jsonWebKeys.add(jwk);
+            } else if (signingKey.verificationKey() instanceof RSAPublicKey rsaPublicKey) {
+                Map<String, Object> jwk = jwkHeader(signingKey, "RSA");
+                jwk.put("n", encodeUnsigned(rsaPublicKey.getModulus(), 0));
+                jwk.put("e", encodeUnsigned(rsaPublicKey.getPublicExponent(), 0));
+                jsonWebKeys.add(jwk);
+            }
+        }
+        return Map.of("keys", jsonWebKeys);
+    }
+
+    private boolean isExpired(SigningKey signingKey, Instant now) {
+        return signingKey.retiredAt() != null && signingKey.retiredAt().plus(retention).isBefore(now);
+    }
+
+    private SigningKey generateKey() {
+        KeyPair keyPair = Keys.keyPairFor(algorithm);
+        SigningKey signingKey = new SigningKey(UUID.randomUUID().toString(), algorithm,
+                keyPair.getPrivate(), keyPair.getPublic(), null);
+        keys.put(signingKey.keyId(), signingKey);
+        return signingKey;
+    }
+
+    private static Map<String, Object> jwkHeader(SigningKey signingKey, String keyType) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", keyType);
+        jwk.put("kid", signingKey.keyId());
+        jwk.put("use", "sig");
+        jwk.put("alg", signingKey.algorithm().getValue());
+        return jwk;
+    }
+
+    private static String encodeUnsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return BASE64_URL.encodeToString(bytes);
+    }
+
+    /**
+     * @param signingKey      the private (or shared) key used to sign
+     * @param verificationKey the public key, or null for the shared HMAC secret which verifies with itself
+     */
+    public record SigningKey(String keyId, SignatureAlgorithm algorithm, Key signingKey, Key verificationKey,
+                             Instant retiredAt) {
+
+        @Override
+        public Key verificationKey() {
+            return verificationKey == null ? signingKey : verificationKey;
+        }
+
+        SigningKey retire(Instant when) {
+            return new SigningKey(keyId, algorithm, signingKey, verificationKey, when);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.dashboardapi.demo.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory revocation list consulted by {@link com.dashboardapi.demo.filter.JwtAuthFilter} on every request.
+ * <p>
+ * Revoked token ids ({@code jti}) sit behind a Bloom filter, so the common case of a token that was never revoked
+ * is answered from a few bit lookups without allocating; only Bloom hits are confirmed against the exact set.
+ * Revoking a user rejects every token issued to them up to that second. Both kinds of entry are dropped once the
+ * tokens they cover have expired anyway.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private static final int HASH_FUNCTIONS = 4;
+
+    private final int bloomFilterBits;
+    private final Duration maxTokenTtl;
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedUsers = new ConcurrentHashMap<>();
+    private volatile AtomicLongArray bloomFilter;
+
+    public TokenRevocationList(@Value("${jwt.revocation.bloom-filter-bits:1048576}") int bloomFilterBits,
+                               @Value("${jwt.access-token.ttl:15m}") Duration maxTokenTtl) {
+        this.bloomFilterBits = Integer.highestOneBit(Math.max(bloomFilterBits, Long.SIZE));
+        this.maxTokenTtl = maxTokenTtl;
+        this.bloomFilter = new AtomicLongArray(this.bloomFilterBits / Long.SIZE);
+    }
+
+    /**
+     * Allocation-free check of the token id and subject against the revocation list.
+     */
+    public boolean isRevoked(VerifiedToken verifiedToken) {
+        if (!revokedUsers.isEmpty() && verifiedToken.getIssuedAt() != null) {
+            Long revokedUpTo = revokedUsers.get(verifiedToken.getSubject());
+            if (revokedUpTo != null && verifiedToken.getIssuedAt().getEpochSecond() <= revokedUpTo) {
+                return true;
+            }
+        }
+        String tokenId = verifiedToken.getId();
+        if (tokenId == null || revokedTokenIds.isEmpty()) {
+            return false;
+        }
+        return mightContain(bloomFilter, tokenId) && revokedTokenIds.containsKey(tokenId);
+    }
+
+    public void revokeToken(String tokenId, Instant expiration) {
+        long expiresAt = expiration == null ? Instant.now().plus(maxTokenTtl).toEpochMilli() : expiration.toEpochMilli();
+        revokedTokenIds.put(tokenId, expiresAt);
+        add(bloomFilter, tokenId);
+        log.info("Revoked token {}", tokenId);
+    }
+
+    public void revokeUser(String userName) {
+        revokedUsers.put(userName, Instant.now().getEpochSecond());
+        log.info("Revoked all tokens issued to {}", userName);
+    }
+
+    /**
+     * Drops entries whose tokens have expired and rebuilds the Bloom filter from what is left, so false positives
+     * do not accumulate.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval:PT1M}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt < now);
+        long userCutoff = Instant.ofEpochMilli(now).minus(maxTokenTtl).getEpochSecond();
+        revokedUsers.values().removeIf(revokedUpTo -> revokedUpTo < userCutoff);
+
+        AtomicLongArray rebuilt = new AtomicLongArray(bloomFilterBits / Long.SIZE);
+        revokedTokenIds.keySet().forEach(tokenId -> add(rebuilt, tokenId));
+        bloomFilter = rebuilt;
+        // Ids revoked while rebuilding may have missed the new filter
+        revokedTokenIds.keySet().forEach(tokenId -> add(bloomFilter, tokenId));
+    }
+
+    private void add(AtomicLongArray filter, String tokenId) {
+        int hash1 = tokenId.hashCode();
+        int hash2 = mix(hash1);
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int bit = (hash1 + i * hash2) & (bloomFilterBits - 1);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = filter.get(word);
+            } while ((current & mask) == 0 && !filter.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    private boolean mightContain(AtomicLongArray filter, String tokenId) {
+        int hash1 = tokenId.hashCode();
+        int hash2 = mix(hash1);
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int bit = (hash1 + i * hash2) & (bloomFilterBits - 1);
+            if ((filter.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return (hash ^ (hash >>> 16)) | 1;
+    }
+}
@@ -0,0 +1,47 @@
+package com.dashboardapi.demo.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of a JWT whose signature has already been checked by {@link com.dashboardapi.demo.service.JwtService}.
+ * Callers read the subject, timestamps and custom claims from here instead of parsing the raw token again.
+ */
+@Getter
+public final class VerifiedToken {
+
+    private final String id;
+    // The kid of the key that verified the token, or null for the legacy shared secret
+    private final String keyId;
+    private final String subject;
+    private final Instant issuedAt;
+    private final Instant expiration;
+    private final Map<String, Object> claims;
+
+    public VerifiedToken(Claims claims) {
+        this(claims, null);
+    }
+
+    public VerifiedToken(Claims claims, String keyId) {
+        this.id = claims.getId();
+        this.keyId = keyId;
+        this.subject = claims.getSubject();
+        this.issuedAt = claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant();
+        this.expiration = claims.getExpiration() == null ? null : claims.getExpiration().toInstant();
+        this.claims = Collections.unmodifiableMap(new LinkedHashMap<>(claims));
+    }
+
+    public <T> T getClaim(String name, Class<T> requiredType) {
+        Object value = claims.get(name);
+        return requiredType.isInstance(value) ? requiredType.cast(value) : null;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiration != null && expiration.isBefore(now);
+    }
+}
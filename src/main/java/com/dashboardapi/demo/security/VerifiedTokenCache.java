@@ -0,0 +1,88 @@
+package com.dashboardapi.demo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Optional in-process cache of verified tokens, keyed by the SHA-256 digest of the raw token.
+ * Entries never outlive the token's own {@code exp}, nor the key that signed it: a hit whose key is no longer
+ * accepted is dropped and re-verified, so both an expired token and one signed by a dropped key are rejected.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+    private final Cache<ByteBuffer, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.enabled:false}") boolean enabled,
+                              @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+            log.info("Verified token cache enabled with maximum size {}", maximumSize);
+        }
+    }
+
+    /**
+     * Returns the cached verification result for the token, running the verifier only on a miss, or on a hit that
+     * no longer passes keyStillValid. Verification failures are never cached.
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier,
+                             Predicate<VerifiedToken> keyStillValid) {
+        if (!enabled) {
+            return verifier.apply(token);
+        }
+        ByteBuffer digest = TokenDigest.sha256(token);
+        VerifiedToken verifiedToken = cache.get(digest, key -> verifier.apply(token));
+        if (keyStillValid.test(verifiedToken)) {
+            return verifiedToken;
+        }
+        cache.invalidate(digest);
+        return verifier.apply(token);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            if (value.getExpiration() == null) {
+                return 0;
+            }
+            long millis = value.getExpiration().toEpochMilli() - Instant.now().toEpochMilli();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.dto.DashboardSnapshot;
+import com.dashboardapi.demo.util.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of single dashboards. Writes reach it through {@link DashboardChangedEvent}s that are
+ * applied only once the writing transaction has committed, so a rolled back write never leaks into the cache.
+ * A load that overlaps an invalidation is not cached, so a read racing a commit cannot re-cache the previous row.
+ * Ids found missing are remembered for a short while in a separate, bounded cache, so repeated lookups of unknown
+ * ids cost no query and cannot evict cached dashboards; a write that creates or saves the id drops the entry.
+ */
+@Component
+@Slf4j
+public class DashboardCache {
+
+    private final boolean enabled;
+    private final Cache<Long, DashboardSnapshot> cache;
+    private final Cache<Long, Boolean> missing;
+    private final SingleFlight<Long, DashboardSnapshot> loads = new SingleFlight<>();
+    // Bumped on every invalidation; a load that overlapped one is returned but not cached, as it may be stale
+    private final AtomicLong invalidations = new AtomicLong();
+    // Bumped on every create or save; a not-found result that overlapped one is not remembered, as the id may exist now
+    private final AtomicLong saves = new AtomicLong();
+    private final Timer loadTimer;
+
+    public DashboardCache(@Value("${dashboards.cache.enabled:true}") boolean enabled,
+                          @Value("${dashboards.cache.maximum-size:10000}") long maximumSize,
+                          @Value("${dashboards.cache.ttl:5m}") Duration ttl,
+                          @Value("${dashboards.cache.negative-maximum-size:10000}") long negativeMaximumSize,
+                          @Value("${dashboards.cache.negative-ttl:30s}") Duration negativeTtl,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(negativeMaximumSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
+        this.loadTimer = Timer.builder("dashboards.cache.load")
+                .description("Time spent loading dashboards on cache misses")
+                .register(meterRegistry);
+        FunctionCounter.builder("dashboards.cache.loads.coalesced", loads, SingleFlight::getJoinedCount)
+                .description("Cache misses that shared a load already in flight instead of querying")
+                .register(meterRegistry);
+        if (enabled) {
+            // Hit ratio from cache.gets, evictions from cache.evictions
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "dashboards");
+            CaffeineCacheMetrics.monitor(meterRegistry, missing, "dashboards.missing");
+            log.info("Dashboard cache enabled with maximum size {} and ttl {}", maximumSize, ttl);
+        }
+    }
+
+    /**
+     * Returns the cached dashboard, running the loader only on a miss. Concurrent misses for the same id share a
+     * single load and its outcome, including a {@code null} (record not found), which is returned as is and
+     * remembered in the negative cache. Loads are coalesced even when caching is disabled.
+     */
+    public DashboardSnapshot get(Long dashboardId, Function<Long, DashboardSnapshot> loader) {
+        Function<Long, DashboardSnapshot> timedLoader = id -> loadTimer.record(() -> loader.apply(id));
+        if (!enabled) {
+            return loads.load(dashboardId, timedLoader);
+        }
+        DashboardSnapshot snapshot = cache.getIfPresent(dashboardId);
+        if (snapshot != null || isKnownMissing(dashboardId)) {
+            return snapshot;
+        }
+        // Loaded outside the cache's own compute so that waiters also share not-found results and failures
+        long invalidationsBefore = invalidations.get();
+        long savesBefore = saves.get();
+        snapshot = loads.load(dashboardId, timedLoader);
+        if (snapshot == null) {
+            markMissing(dashboardId, savesBefore);
+        } else {
+            putUnlessInvalidated(dashboardId, snapshot, invalidationsBefore);
+        }
+        return snapshot;
+    }
+
+    public boolean isKnownMissing(Long dashboardId) {
+        return enabled && missing.getIfPresent(dashboardId) != null;
+    }
+
+    /**
+     * Stamp to take before a lookup that may find nothing, and to pass to {@link #markMissing(Long, long)} after it.
+     */
+    public long missingStamp() {
+        return saves.get();
+    }
+
+    // Not remembered when a create or save committed since the stamp was taken
+    public void markMissing(Long dashboardId, long stamp) {
+        if (enabled) {
+            // Checked under the entry's lock: a save bumps the counter before dropping the entry, so it either
+            // prevents this put or removes what it put
+            missing.asMap().compute(dashboardId,
+                    (id, present) -> saves.get() == stamp ? Boolean.TRUE : present);
+        }
+    }
+
+    // Same ordering argument as markMissing: invalidations bump the counter before invalidating the entry
+    private void putUnlessInvalidated(Long dashboardId, DashboardSnapshot snapshot, long invalidationsBefore) {
+        cache.asMap().compute(dashboardId,
+                (id, present) -> invalidations.get() == invalidationsBefore ? snapshot : present);
+    }
+
+    public DashboardSnapshot getIfPresent(Long dashboardId) {
+        return enabled ? cache.getIfPresent(dashboardId) : null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDashboardChanged(DashboardChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // Only new rows are put: after-commit listeners of concurrent updates may run out of order, invalidation may not
+        if (event.type() != DashboardChangedEvent.Type.DELETED) {
+            saves.incrementAndGet();
+            missing.invalidate(event.dashboardId());
+        }
+        if (event.type() == DashboardChangedEvent.Type.CREATED) {
+            cache.put(event.dashboardId(), event.snapshot());
+        } else {
+            invalidations.incrementAndGet();
+            cache.invalidate(event.dashboardId());
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        saves.incrementAndGet();
+        cache.invalidateAll();
+        missing.invalidateAll();
+    }
+}
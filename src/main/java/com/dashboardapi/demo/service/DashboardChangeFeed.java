@@ -0,0 +1,320 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.dto.DashboardChangeMessage;
+import com.dashboardapi.demo.dto.DashboardSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes committed dashboard changes to Server-Sent Events subscribers.
+ * <p>
+ * Subscribers are async servlet responses, so an idle subscriber holds no thread. Each change is serialized once
+ * and appended to a replay ring on the committing thread; a single fan-out thread then offers it to every
+ * subscriber's bounded queue, so a commit does not wait on the number of subscribers. Each queue is drained on a
+ * virtual thread of its own, so a client that stops reading blocks only its own writes, never a thread shared with
+ * other subscribers. A subscriber whose queue overflows is closed rather than allowed to hold memory; it reconnects with {@code Last-Event-ID} and resumes from the ring. Event ids are
+ * {@code <boot id>-<sequence>}, where the boot id is new every time the feed starts. A position from another boot,
+ * or one the ring no longer covers, gets a {@code reset} event, after which the client resyncs through
+ * {@code GET /dashboards/changes}.
+ */
+@Component
+@Slf4j
+public class DashboardChangeFeed {
+
+    static final String RESET_EVENT = "reset";
+
+    private static final FeedEvent HEARTBEAT = new FeedEvent(0, "heartbeat", "", 0);
+
+    // Guards lastEventId and the replay ring, and orders handing events to the fan-out thread
+    private final Object lock = new Object();
+    private final String bootId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final FeedEvent[] replay;
+    private int replayStart;
+    private int replayCount;
+    private long lastEventId;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final int subscriberBuffer;
+    private final long timeoutMillis;
+    private final ExecutorService fanOut;
+    private final ExecutorService dispatcher;
+    private final ObjectMapper objectMapper;
+    private final Timer fanOutTimer;
+    private final Counter droppedSubscribers;
+
+    public DashboardChangeFeed(@Value("${dashboards.feed.replay-size:1000}") int replaySize,
+                               @Value("${dashboards.feed.subscriber-buffer:256}") int subscriberBuffer,
+                               @Value("${dashboards.feed.timeout:PT30M}") Duration timeout,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.replay = new FeedEvent[replaySize];
+        this.subscriberBuffer = subscriberBuffer;
+        this.timeoutMillis = timeout.toMillis();
+        this.objectMapper = objectMapper;
+        this.fanOut = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-feed-fanout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dashboard-feed-", 1).factory());
+        Gauge.builder("dashboards.feed.subscribers", subscribers, Set::size)
+                .description("Open change feed subscriptions")
+                .register(meterRegistry);
+        this.fanOutTimer = Timer.builder("dashboards.feed.fanout")
+                .description("Time from commit until a change is written to a subscriber")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("dashboards.feed.subscribers.dropped")
+                .description("Subscribers closed because they could not keep up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a subscription, replaying the changes after lastEventId when the ring still holds them.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = subscribe(lastEventId, new SseEmitterSink(emitter, bootId));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        return emitter;
+    }
+
+    Subscriber subscribe(String lastEventId, Sink sink) {
+        Subscriber subscriber = new Subscriber(sink);
+        synchronized (lock) {
+            if (lastEventId != null) {
+                List<FeedEvent> missed = missedSince(lastEventId);
+                if (missed == null) {
+                    subscriber.offer(new FeedEvent(this.lastEventId, RESET_EVENT, "{}", System.nanoTime()));
+                } else {
+                    missed.forEach(subscriber::offer);
+                }
+            }
+            // Events up to here were replayed or predate the subscription; the fan-out thread may still be behind
+            subscriber.lastOffered = this.lastEventId;
+            subscribers.add(subscriber);
+        }
+        return subscriber;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDashboardChanged(DashboardChangedEvent event) {
+        String type = event.type().name().toLowerCase();
+        DashboardSnapshot snapshot = event.snapshot();
+        String data = serialize(new DashboardChangeMessage(type, event.dashboardId(),
+                snapshot == null ? null : snapshot.toDashboard()));
+        long publishedNanos = System.nanoTime();
+        synchronized (lock) {
+            FeedEvent feedEvent = new FeedEvent(++lastEventId, type, data, publishedNanos);
+            if (replay.length > 0) {
+                replay[(replayStart + replayCount) % replay.length] = feedEvent;
+                if (replayCount < replay.length) {
+                    replayCount++;
+                } else {
+                    replayStart = (replayStart + 1) % replay.length;
+                }
+            }
+            // Submitted under the lock so the single fan-out thread sees events in id order
+            fanOut.execute(() -> {
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.publish(feedEvent);
+                }
+            });
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${dashboards.feed.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        fanOut.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    String eventId(long sequence) {
+        return bootId + "-" + sequence;
+    }
+
+    // Returns null when the ring no longer covers the position, or when it is not one this boot of the feed handed out
+    private List<FeedEvent> missedSince(String lastEventId) {
+        String prefix = bootId + "-";
+        String position = lastEventId.trim();
+        if (!position.startsWith(prefix)) {
+            return null;
+        }
+        long after;
+        try {
+            after = Long.parseLong(position.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldestReplayed = this.lastEventId - replayCount + 1;
+        if (after > this.lastEventId || after < oldestReplayed - 1) {
+            return null;
+        }
+        int missedCount = (int) (this.lastEventId - after);
+        if (missedCount > subscriberBuffer) {
+            return null;
+        }
+        List<FeedEvent> missed = new ArrayList<>(missedCount);
+        for (int i = replayCount - missedCount; i < replayCount; i++) {
+            missed.add(replay[(replayStart + i) % replay.length]);
+        }
+        return missed;
+    }
+
+    private String serialize(DashboardChangeMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    record FeedEvent(long id, String name, String data, long publishedNanos) {
+    }
+
+    // Where a subscriber's events are written; an SseEmitter in production
+    interface Sink {
+
+        void send(FeedEvent event) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    final class Subscriber {
+
+        private final Sink sink;
+        private final BlockingQueue<FeedEvent> queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Written before the subscriber is registered, then only by the fan-out thread
+        private volatile long lastOffered;
+
+        private Subscriber(Sink sink) {
+            this.sink = sink;
+        }
+
+        // Skips events the subscription already replayed or that were committed before it
+        void publish(FeedEvent event) {
+            if (event.id() > lastOffered) {
+                lastOffered = event.id();
+                offer(event);
+            }
+        }
+
+        void offer(FeedEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.warn("Closing a change feed subscriber that fell {} events behind", subscriberBuffer);
+                droppedSubscribers.increment();
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                FeedEvent event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    if (event == HEARTBEAT) {
+                        sink.heartbeat();
+                    } else {
+                        sink.send(event);
+                        fanOutTimer.record(System.nanoTime() - event.publishedNanos(), TimeUnit.NANOSECONDS);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Change feed subscriber failed, closing it", e);
+                close();
+            } finally {
+                draining.set(false);
+                // An event offered after the last poll but before the flag was cleared would otherwise wait
+                if (!queue.isEmpty() && !closed.get() && draining.compareAndSet(false, true)) {
+                    dispatcher.execute(this::drain);
+                }
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                queue.clear();
+                sink.close();
+            }
+        }
+
+        boolean isClosed() {
+            return closed.get();
+        }
+    }
+
+    private record SseEmitterSink(SseEmitter emitter, String bootId) implements Sink {
+
+        @Override
+        public void send(FeedEvent event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(bootId + "-" + event.id())
+                    .name(event.name())
+                    .data(event.data(), MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.dto.DashboardSnapshot;
+import com.dashboardapi.demo.entity.Dashboard;
+
+/**
+ * Published by {@link DashboardServiceImpl} whenever a dashboard is written, from inside the writing transaction.
+ * Listeners run after commit on the committing thread, so {@link #snapshot()} sees the row as committed,
+ * including its bumped version. The entity itself must not be kept or handed to another thread.
+ */
+public record DashboardChangedEvent(Type type, Long dashboardId, Dashboard dashboard) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static DashboardChangedEvent created(Dashboard dashboard) {
+        return new DashboardChangedEvent(Type.CREATED, dashboard.getId(), dashboard);
+    }
+
+    public static DashboardChangedEvent updated(Dashboard dashboard) {
+        return new DashboardChangedEvent(Type.UPDATED, dashboard.getId(), dashboard);
+    }
+
+    public static DashboardChangedEvent deleted(Long dashboardId) {
+        return new DashboardChangedEvent(Type.DELETED, dashboardId, null);
+    }
+
+    // Null for deletes
+    public DashboardSnapshot snapshot() {
+        return dashboard == null ? null : DashboardSnapshot.from(dashboard);
+    }
+}
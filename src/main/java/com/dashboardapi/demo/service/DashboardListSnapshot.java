@@ -0,0 +1,149 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.dto.DashboardSnapshot;
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.repository.DashboardRepository;
+import com.dashboardapi.demo.util.DashboardETags;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The full dashboard list as ready-to-send JSON, plain and gzipped, with its ETag.
+ * <p>
+ * A rebuild runs on a background thread once the debounce interval has passed after a committed write. Writes
+ * that commit while a rebuild is pending are folded into it, so a burst of writes costs one rebuild per
+ * interval. Readers always get the last finished snapshot and never wait for a rebuild. Until the first rebuild
+ * has finished, {@link #current()} returns {@code null} and callers serve the list themselves.
+ */
+@Component
+@Slf4j
+public class DashboardListSnapshot {
+
+    private static final TypeReference<List<Dashboard>> DASHBOARD_LIST = new TypeReference<>() {
+    };
+
+    private final boolean enabled;
+    private final long debounceMillis;
+    private final long maxAgeNanos;
+    private final DashboardRepository dashboardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter listWriter;
+    private final ScheduledExecutorService rebuilder;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final AtomicLong versions = new AtomicLong();
+    private final Timer rebuildTimer;
+
+    public DashboardListSnapshot(@Value("${dashboards.list-snapshot.enabled:true}") boolean enabled,
+                                 @Value("${dashboards.list-snapshot.debounce:PT0.5S}") Duration debounce,
+                                 @Value("${dashboards.list-snapshot.max-age:PT5M}") Duration maxAge,
+                                 DashboardRepository dashboardRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.debounceMillis = debounce.toMillis();
+        this.maxAgeNanos = maxAge.toNanos();
+        this.dashboardRepository = dashboardRepository;
+        // Read-write, so the rebuild reads the primary rather than a replica that may not have the write yet
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.listWriter = objectMapper.writerFor(DASHBOARD_LIST);
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-list-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.rebuildTimer = Timer.builder("dashboards.list.snapshot.rebuild")
+                .description("Time spent querying, serializing and compressing the dashboard list")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the latest snapshot, or {@code null} when there is none yet or the snapshot is disabled. A missing
+     * snapshot, or one older than the maximum age, schedules a rebuild; the stale one is still returned meanwhile.
+     */
+    public Snapshot current() {
+        if (!enabled) {
+            return null;
+        }
+        Snapshot snapshot = current.get();
+        if (snapshot == null || System.nanoTime() - snapshot.builtAtNanos() > maxAgeNanos) {
+            scheduleRebuild(0);
+        }
+        return snapshot;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDashboardChanged(DashboardChangedEvent event) {
+        if (enabled) {
+            scheduleRebuild(debounceMillis);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void scheduleRebuild(long delayMillis) {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.schedule(this::rebuild, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuild() {
+        // Cleared before reading, so a write committing during the rebuild schedules another one
+        rebuildPending.set(false);
+        try {
+            Snapshot snapshot = rebuildTimer.recordCallable(this::build);
+            current.set(snapshot);
+            log.debug("Rebuilt dashboard list snapshot version {} ({} bytes, {} gzipped)",
+                    snapshot.version(), snapshot.json().length, snapshot.gzippedJson().length);
+        } catch (Exception e) {
+            log.warn("Failed to rebuild the dashboard list snapshot, keeping the previous one", e);
+        }
+    }
+
+    private Snapshot build() throws IOException {
+        List<Dashboard> dashboards = transactionTemplate.execute(status -> dashboardRepository.findAllSnapshots()
+                .stream()
+                .map(DashboardSnapshot::toDashboard)
+                .toList());
+        byte[] json = listWriter.writeValueAsBytes(dashboards);
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(json);
+        }
+        return new Snapshot(versions.incrementAndGet(), DashboardETags.ofList(dashboards, null),
+                json, gzipped.toByteArray(), System.nanoTime());
+    }
+
+    /**
+     * One immutable version of the list. The arrays are written to responses as they are and must not be modified.
+     */
+    public record Snapshot(long version, String eTag, byte[] json, byte[] gzippedJson, long builtAtNanos) {
+    }
+}
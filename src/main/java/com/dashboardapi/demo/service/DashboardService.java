@@ -1,19 +1,40 @@
 package com.dashboardapi.demo.service;
 
+import com.dashboardapi.demo.dto.BulkItemResult;
+import com.dashboardapi.demo.dto.DashboardBulkRequest;
+import com.dashboardapi.demo.dto.DashboardChanges;
+import com.dashboardapi.demo.dto.DashboardPage;
 import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.error.DashboardChangesExpiredException;
 import com.dashboardapi.demo.error.DashboardRecordNotFoundException;
+import com.dashboardapi.demo.error.DashboardVersionConflictException;
+import com.dashboardapi.demo.error.InvalidPageCursorException;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface DashboardService {
 
     List<Dashboard> getAllDashboards();
 
+    void exportDashboards(Consumer<Dashboard> dashboardConsumer);
+
+    DashboardPage getDashboardPage(String afterCursor, Integer limit) throws InvalidPageCursorException;
+
+    DashboardChanges getDashboardChanges(String since, Integer limit)
+            throws InvalidPageCursorException, DashboardChangesExpiredException;
+
     Dashboard saveDashboard(Dashboard dashboard);
 
+    List<BulkItemResult> bulkWriteDashboards(DashboardBulkRequest bulkRequest);
+
     String deleteDashboardById(Long dashboardId) throws DashboardRecordNotFoundException;
 
     Dashboard updateDashboard(Long dashboardId, Dashboard dashboard) throws DashboardRecordNotFoundException;
 
+    // A null expectedVersion skips the version check
+    Dashboard updateDashboard(Long dashboardId, Dashboard dashboard, Integer expectedVersion)
+            throws DashboardRecordNotFoundException, DashboardVersionConflictException;
+
     Dashboard getDashboardById(Long dashboardId) throws DashboardRecordNotFoundException;
 }
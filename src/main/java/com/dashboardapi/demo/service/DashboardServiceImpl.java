@@ -1,71 +1,459 @@
 package com.dashboardapi.demo.service;
 
+import com.dashboardapi.demo.config.ReplicaRoutingDataSource;
+import com.dashboardapi.demo.config.ReplicaRoutingDataSource.PrimaryReads;
+import com.dashboardapi.demo.dto.BulkItemResult;
+import com.dashboardapi.demo.dto.BulkItemResult.Operation;
+import com.dashboardapi.demo.dto.DashboardChanges;
+import com.dashboardapi.demo.dto.DashboardBulkRequest;
+import com.dashboardapi.demo.dto.DashboardPage;
+import com.dashboardapi.demo.dto.DashboardSnapshot;
 import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.entity.DashboardTombstone;
+import com.dashboardapi.demo.error.DashboardChangesExpiredException;
 import com.dashboardapi.demo.error.DashboardRecordNotFoundException;
+import com.dashboardapi.demo.error.DashboardVersionConflictException;
+import com.dashboardapi.demo.error.InvalidPageCursorException;
 import com.dashboardapi.demo.repository.DashboardRepository;
+import com.dashboardapi.demo.repository.DashboardTombstoneRepository;
 import com.dashboardapi.demo.util.ApplicationConstants;
+import com.dashboardapi.demo.util.PageCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class DashboardServiceImpl implements DashboardService {
+    // Start of the updated stream for a client syncing for the first time
+    private static final LocalDateTime SYNC_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     @Autowired
     private DashboardRepository dashboardRepository;
 
+    @Autowired
+    private DashboardTombstoneRepository tombstoneRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${dashboards.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    @Value("${dashboards.pagination.default-limit:20}")
+    private int defaultPageLimit;
+
+    @Value("${dashboards.pagination.max-limit:100}")
+    private int maxPageLimit;
+
+    @Value("${dashboards.changes.default-limit:500}")
+    private int defaultChangesLimit;
+
+    @Value("${dashboards.changes.max-limit:1000}")
+    private int maxChangesLimit;
+
+    @Value("${dashboards.changes.settle-window:PT5S}")
+    private Duration changesSettleWindow;
+
+    @Value("${dashboards.changes.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
     @Override
+    @Transactional(readOnly = true)
     public List<Dashboard> getAllDashboards() {
         log.info("Inside getAllDashboards() method");
-        return dashboardRepository.findAll();
+        return toDashboards(dashboardRepository.findAllSnapshots());
+    }
+
+    /**
+     * Hands every dashboard to the consumer one at a time. Rows are read as snapshots, so the persistence context
+     * stays empty however large the table is.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportDashboards(Consumer<Dashboard> dashboardConsumer) {
+        log.info("Inside exportDashboards() method");
+        try (Stream<DashboardSnapshot> dashboards = dashboardRepository.streamAllOrderedById()) {
+            dashboards.forEach(snapshot -> dashboardConsumer.accept(snapshot.toDashboard()));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardPage getDashboardPage(String afterCursor, Integer limit) throws InvalidPageCursorException {
+        log.info("Inside getDashboardPage() method");
+        long afterId = afterCursor == null ? 0L : PageCursor.decode(afterCursor, 1)[0];
+        int pageLimit = Math.max(1, Math.min(limit == null ? defaultPageLimit : limit, maxPageLimit));
+        // One extra row tells whether another page exists without a count query
+        List<Dashboard> dashboards = toDashboards(dashboardRepository.findSnapshotsAfter(afterId, Limit.of(pageLimit + 1)));
+        if (dashboards.size() <= pageLimit) {
+            return new DashboardPage(dashboards, null);
+        }
+        List<Dashboard> page = dashboards.subList(0, pageLimit);
+        return new DashboardPage(page, PageCursor.encode(page.get(pageLimit - 1).getId()));
+    }
+
+    /**
+     * Returns what changed after the watermark, reading the updated_date index and the tombstones as two keyset
+     * streams, so the cost follows the number of changes rather than the table size. The watermark holds the
+     * position in both streams. Only changes stamped before the horizon (whole seconds that have passed, minus
+     * {@code dashboards.changes.settle-window}) are returned, so a write still committing with an older stamp is
+     * not skipped. Both streams are read from the primary: a lagging replica would let the watermark pass changes
+     * it has not applied yet, and they would never be returned.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public DashboardChanges getDashboardChanges(String since, Integer limit)
+            throws InvalidPageCursorException, DashboardChangesExpiredException {
+        log.info("Inside getDashboardChanges() method");
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.truncatedTo(ChronoUnit.SECONDS).minusSeconds(1).minus(changesSettleWindow);
+        LocalDateTime updatedAfter = SYNC_EPOCH;
+        long updatedAfterId = 0L;
+        // A first sync lists every live dashboard, so earlier deletes are of no interest to it
+        LocalDateTime deletedAfter = horizon;
+        long deletedAfterId = Long.MAX_VALUE;
+        if (since != null) {
+            long[] watermark = PageCursor.decode(since, 4);
+            updatedAfter = fromEpochMilli(watermark[0]);
+            updatedAfterId = watermark[1];
+            deletedAfter = fromEpochMilli(watermark[2]);
+            deletedAfterId = watermark[3];
+            if (deletedAfter.isBefore(now.minus(tombstoneRetention))) {
+                throw new DashboardChangesExpiredException(ApplicationConstants.DASHBOARD_CHANGES_EXPIRED);
+            }
+        }
+        int changesLimit = Math.max(1, Math.min(limit == null ? defaultChangesLimit : limit, maxChangesLimit));
+
+        List<Dashboard> updated;
+        List<DashboardTombstone> deleted;
+        try (PrimaryReads primaryReads = ReplicaRoutingDataSource.readFromPrimary()) {
+            updated = toDashboards(dashboardRepository.findChangedAfter(
+                    updatedAfter, updatedAfterId, horizon, Limit.of(changesLimit + 1)));
+            deleted = tombstoneRepository.findDeletedAfter(
+                    deletedAfter, deletedAfterId, horizon, Limit.of(changesLimit + 1));
+        }
+        boolean hasMore = updated.size() > changesLimit || deleted.size() > changesLimit;
+
+        // A stream read to its end has seen everything up to the horizon; otherwise it resumes after its last row
+        if (updated.size() > changesLimit) {
+            updated = updated.subList(0, changesLimit);
+            Dashboard last = updated.get(changesLimit - 1);
+            updatedAfter = last.getUpdatedAt();
+            updatedAfterId = last.getId();
+        } else if (horizon.isAfter(updatedAfter)) {
+            updatedAfter = horizon;
+            updatedAfterId = Long.MAX_VALUE;
+        }
+        if (deleted.size() > changesLimit) {
+            deleted = deleted.subList(0, changesLimit);
+            DashboardTombstone last = deleted.get(changesLimit - 1);
+            deletedAfter = last.getDeletedAt();
+            deletedAfterId = last.getDashboardId();
+        } else if (horizon.isAfter(deletedAfter)) {
+            deletedAfter = horizon;
+            deletedAfterId = Long.MAX_VALUE;
+        }
+        String nextWatermark = PageCursor.encode(toEpochMilli(updatedAfter), updatedAfterId,
+                toEpochMilli(deletedAfter), deletedAfterId);
+        return new DashboardChanges(updated,
+                deleted.stream().map(DashboardTombstone::getDashboardId).toList(), nextWatermark, hasMore);
+    }
+
+    @Scheduled(fixedDelayString = "${dashboards.changes.prune-interval:PT1H}")
+    public void pruneTombstones() {
+        int pruned = tombstoneRepository.deleteDeletedBefore(LocalDateTime.now().minus(tombstoneRetention));
+        log.debug("Pruned {} dashboard tombstones", pruned);
     }
 
+    // Plain, unmanaged Dashboards, so read endpoints keep their JSON and ETags
+    private static List<Dashboard> toDashboards(List<DashboardSnapshot> snapshots) {
+        List<Dashboard> dashboards = new ArrayList<>(snapshots.size());
+        for (DashboardSnapshot snapshot : snapshots) {
+            dashboards.add(snapshot.toDashboard());
+        }
+        return dashboards;
+    }
+
+    private static LocalDateTime fromEpochMilli(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC);
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Creates the dashboard, or updates the stored one when the body carries the id of an existing row. The version
+     * is never sent by clients, so a body with an id cannot simply be saved: Spring Data would persist it as new.
+     * An id that matches no row is ignored and a new dashboard is created, as a merge would have done.
+     */
     @Override
+    @Transactional
     public Dashboard saveDashboard(Dashboard dashboard) {
         log.info("Inside saveDashboard() method");
-        return dashboardRepository.save(dashboard);
+        Dashboard existingDashboard = dashboard.getId() == null
+                ? null
+                : dashboardRepository.findById(dashboard.getId()).orElse(null);
+        if (existingDashboard != null) {
+            return applyUpdate(existingDashboard, dashboard);
+        }
+        dashboard.setId(null);
+        dashboard.setVersion(null);
+        Dashboard savedDashboard = dashboardRepository.save(dashboard);
+        eventPublisher.publishEvent(DashboardChangedEvent.created(savedDashboard));
+        return savedDashboard;
+    }
+
+    /**
+     * Applies creates, then updates, then deletes, each in chunks of {@code dashboards.bulk.chunk-size} items
+     * committed in their own transaction. Within a chunk the persistence context is flushed once, so Hibernate
+     * sends the writes as JDBC batches, and cleared afterwards so memory stays flat for large requests.
+     * A failing chunk is rolled back and reported item by item; the other chunks are unaffected.
+     */
+    @Override
+    public List<BulkItemResult> bulkWriteDashboards(DashboardBulkRequest bulkRequest) {
+        log.info("Inside bulkWriteDashboards() method");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<BulkItemResult> results = new ArrayList<>();
+        results.addAll(inChunks(transactionTemplate, Operation.CREATE, bulkRequest.getCreates(), this::createChunk));
+        results.addAll(inChunks(transactionTemplate, Operation.UPDATE, bulkRequest.getUpdates(), this::updateChunk));
+        results.addAll(inChunks(transactionTemplate, Operation.DELETE, bulkRequest.getDeletes(), this::deleteChunk));
+        return results;
+    }
+
+    private <T> List<BulkItemResult> inChunks(TransactionTemplate transactionTemplate, Operation operation,
+                                              List<T> items, Function<List<T>, List<BulkItemResult>> chunkWriter) {
+        List<BulkItemResult> results = new ArrayList<>();
+        if (items == null) {
+            return results;
+        }
+        for (int from = 0; from < items.size(); from += bulkChunkSize) {
+            List<T> chunk = items.subList(from, Math.min(from + bulkChunkSize, items.size()));
+            try {
+                List<BulkItemResult> chunkResults = transactionTemplate.execute(status -> {
+                    List<BulkItemResult> written = chunkWriter.apply(chunk);
+                    entityManager.flush();
+                    entityManager.clear();
+                    return written;
+                });
+                for (BulkItemResult result : chunkResults) {
+                    result.setIndex(result.getIndex() + from);
+                }
+                results.addAll(chunkResults);
+            } catch (RuntimeException e) {
+                log.warn("Bulk {} chunk starting at {} rolled back", operation, from, e);
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(new BulkItemResult(operation, from + i, null,
+                            HttpStatus.INTERNAL_SERVER_ERROR, ApplicationConstants.BULK_CHUNK_ROLLED_BACK));
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<BulkItemResult> createChunk(List<Dashboard> dashboards) {
+        List<BulkItemResult> results = new ArrayList<>(dashboards.size());
+        for (int i = 0; i < dashboards.size(); i++) {
+            Dashboard dashboard = dashboards.get(i);
+            dashboard.setId(null);
+            // The id comes from the pooled sequence here; the insert itself waits for the batched flush
+            entityManager.persist(dashboard);
+            eventPublisher.publishEvent(DashboardChangedEvent.created(dashboard));
+            results.add(new BulkItemResult(Operation.CREATE, i, dashboard.getId(), HttpStatus.CREATED, null));
+        }
+        return results;
     }
 
+    private List<BulkItemResult> updateChunk(List<Dashboard> changes) {
+        Set<Long> ids = changes.stream().map(Dashboard::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+        // One select for the whole chunk; the changed columns are then written by dirty checking on flush
+        Map<Long, Dashboard> existingDashboards = dashboardRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Dashboard::getId, Function.identity()));
+        List<BulkItemResult> results = new ArrayList<>(changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            Dashboard change = changes.get(i);
+            Dashboard existingDashboard = change.getId() == null ? null : existingDashboards.get(change.getId());
+            if (change.getId() == null) {
+                results.add(new BulkItemResult(Operation.UPDATE, i, null,
+                        HttpStatus.BAD_REQUEST, ApplicationConstants.BULK_UPDATE_ID_REQUIRED));
+            } else if (existingDashboard == null) {
+                results.add(new BulkItemResult(Operation.UPDATE, i, change.getId(),
+                        HttpStatus.NOT_FOUND, ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT));
+            } else {
+                if (applyChanges(existingDashboard, change)) {
+                    eventPublisher.publishEvent(DashboardChangedEvent.updated(existingDashboard));
+                }
+                results.add(new BulkItemResult(Operation.UPDATE, i, change.getId(), HttpStatus.OK, null));
+            }
+        }
+        return results;
+    }
+
+    private List<BulkItemResult> deleteChunk(List<Long> dashboardIds) {
+        Set<Long> existingIds = new HashSet<>(dashboardRepository.findExistingIds(
+                dashboardIds.stream().filter(Objects::nonNull).collect(Collectors.toSet())));
+        if (!existingIds.isEmpty()) {
+            // A single "delete ... where id in (...)" instead of a load and delete per entity
+            dashboardRepository.deleteAllByIdInBatch(existingIds);
+            LocalDateTime deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            tombstoneRepository.saveAll(existingIds.stream()
+                    .map(dashboardId -> new DashboardTombstone(dashboardId, deletedAt))
+                    .toList());
+        }
+        List<BulkItemResult> results = new ArrayList<>(dashboardIds.size());
+        for (int i = 0; i < dashboardIds.size(); i++) {
+            Long dashboardId = dashboardIds.get(i);
+            if (existingIds.contains(dashboardId)) {
+                eventPublisher.publishEvent(DashboardChangedEvent.deleted(dashboardId));
+                results.add(new BulkItemResult(Operation.DELETE, i, dashboardId, HttpStatus.OK, null));
+            } else {
+                results.add(new BulkItemResult(Operation.DELETE, i, dashboardId,
+                        HttpStatus.NOT_FOUND, ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * An id the dashboard cache knows to be missing is rejected before a transaction is started, so repeated
+     * deletes of unknown ids cost neither a connection nor a query.
+     */
     @Override
     public String deleteDashboardById(Long dashboardId) throws DashboardRecordNotFoundException {
         log.info("Inside deleteDashboardById() method");
-        if (dashboardRepository.findById(dashboardId).isEmpty()) {
+        if (dashboardCache.isKnownMissing(dashboardId)) {
+            throw new DashboardRecordNotFoundException(ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT);
+        }
+        long missingStamp = dashboardCache.missingStamp();
+        Boolean deleted = new TransactionTemplate(transactionManager).execute(status -> {
+            if (dashboardRepository.deleteDashboardById(dashboardId) == 0) {
+                return false;
+            }
+            // Committed with the delete, so delta sync clients cannot miss it
+            tombstoneRepository.save(new DashboardTombstone(dashboardId, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)));
+            eventPublisher.publishEvent(DashboardChangedEvent.deleted(dashboardId));
+            return true;
+        });
+        if (!Boolean.TRUE.equals(deleted)) {
+            dashboardCache.markMissing(dashboardId, missingStamp);
             throw new DashboardRecordNotFoundException(ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT);
         }
-        dashboardRepository.deleteById(dashboardId);
         return ApplicationConstants.DASHBOARD_RECORD_DELETED_SUCCESSFULLY;
     }
 
+    /**
+     * The loaded entity stays managed for the transaction, so the changes are written by dirty checking on commit
+     * as a single UPDATE of the changed columns, or not at all when nothing changed.
+     */
     @Override
+    @Transactional(rollbackFor = DashboardRecordNotFoundException.class)
     public Dashboard updateDashboard(Long dashboardId, Dashboard dashboard) throws DashboardRecordNotFoundException {
         log.info("Inside updateDashboard() method");
+        return applyUpdate(loadForUpdate(dashboardId), dashboard);
+    }
+
+    /**
+     * Same as {@link #updateDashboard(Long, Dashboard)}, but only applies the changes when the stored version is the
+     * expected one. A concurrent update committing in between is caught by the versioned UPDATE on commit and
+     * surfaces as an optimistic locking failure.
+     */
+    @Override
+    @Transactional(rollbackFor = {DashboardRecordNotFoundException.class, DashboardVersionConflictException.class})
+    public Dashboard updateDashboard(Long dashboardId, Dashboard dashboard, Integer expectedVersion)
+            throws DashboardRecordNotFoundException, DashboardVersionConflictException {
+        log.info("Inside updateDashboard() method with expected version {}", expectedVersion);
+        Dashboard existingDashboard = loadForUpdate(dashboardId);
+        if (Objects.nonNull(expectedVersion) && !expectedVersion.equals(existingDashboard.getVersion())) {
+            throw new DashboardVersionConflictException(ApplicationConstants.DASHBOARD_VERSION_CONFLICT);
+        }
+        return applyUpdate(existingDashboard, dashboard);
+    }
 
+    private Dashboard loadForUpdate(Long dashboardId) throws DashboardRecordNotFoundException {
         Dashboard existingDashboard = dashboardRepository.findById(dashboardId).orElse(null);
         if (Objects.isNull(existingDashboard)) {
             throw new DashboardRecordNotFoundException(ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT);
         }
+        return existingDashboard;
+    }
+
+    private Dashboard applyUpdate(Dashboard existingDashboard, Dashboard dashboard) {
+        // Cached copies are dropped once this transaction commits; an update that changed nothing keeps them
+        if (applyChanges(existingDashboard, dashboard)) {
+            eventPublisher.publishEvent(DashboardChangedEvent.updated(existingDashboard));
+        }
+        return existingDashboard;
+    }
 
-        if (Objects.nonNull(dashboard.getTitle()) && !"".equalsIgnoreCase(dashboard.getTitle())) {
+    /**
+     * Copies the non-empty fields of the change onto the managed dashboard and returns whether any of them differed.
+     */
+    private boolean applyChanges(Dashboard existingDashboard, Dashboard dashboard) {
+        boolean changed = false;
+        if (Objects.nonNull(dashboard.getTitle()) && !"".equalsIgnoreCase(dashboard.getTitle())
+                && !dashboard.getTitle().equals(existingDashboard.getTitle())) {
             existingDashboard.setTitle(dashboard.getTitle());
+            changed = true;
         }
-        if (Objects.nonNull(dashboard.getCreatedAt())) {
+        if (Objects.nonNull(dashboard.getCreatedAt()) && !dashboard.getCreatedAt().equals(existingDashboard.getCreatedAt())) {
             existingDashboard.setCreatedAt(dashboard.getCreatedAt());
+            changed = true;
         }
-        if (Objects.nonNull(dashboard.getUpdatedAt())) {
-            existingDashboard.setUpdatedAt(dashboard.getUpdatedAt());
+        // updatedAt is owned by the server; an update that changes nothing leaves it, and the row, untouched
+        if (changed) {
+            existingDashboard.stampUpdatedAt();
         }
-        return dashboardRepository.save(existingDashboard);
+        return changed;
     }
 
     @Override
     public Dashboard getDashboardById(Long dashboardId) throws DashboardRecordNotFoundException {
         log.info("Inside getDashboardById() method");
-        if (dashboardRepository.findById(dashboardId).isEmpty()) {
+        // From the primary: a row, or its absence, read from a lagging replica would be cached for the whole TTL
+        DashboardSnapshot snapshot = dashboardCache.get(dashboardId, id -> {
+            try (PrimaryReads primaryReads = ReplicaRoutingDataSource.readFromPrimary()) {
+                return dashboardRepository.findSnapshotById(id).orElse(null);
+            }
+        });
+        if (snapshot == null) {
             throw new DashboardRecordNotFoundException(ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT);
         }
-        return dashboardRepository.findById(dashboardId).get();
+        return snapshot.toDashboard();
     }
 }
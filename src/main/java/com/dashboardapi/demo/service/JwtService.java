@@ -1,23 +1,71 @@
 package com.dashboardapi.demo.service;
 
+import com.dashboardapi.demo.entity.MyUserDetails;
+import com.dashboardapi.demo.security.SigningKeyRegistry;
+import com.dashboardapi.demo.security.VerifiedToken;
+import com.dashboardapi.demo.security.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
     public static final String SECRET = "c3BlY2lhbGdvdmVybm1lbnRjb25uZWN0ZWRhY2NvdW50d29sZnNob3djYXRhY3Jlc3M=";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String USER_VERSION_CLAIM = "uv";
+
+    // The parser is immutable and thread-safe, and resolves already parsed keys from the registry by kid
+    private final JwtParser jwtParser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    Key key = signingKeyRegistry.getVerificationKey(header.getKeyId());
+                    if (key == null) {
+                        throw new UnsupportedJwtException("Unknown or expired signing key " + header.getKeyId());
+                    }
+                    return key;
+                }
+            })
+            .build();
+
+    @Autowired
+    private SigningKeyRegistry signingKeyRegistry;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Value("${jwt.access-token.ttl:15m}")
+    private Duration accessTokenTtl;
+
+    /**
+     * Parses the token and checks its signature and expiry exactly once, or returns the cached result
+     * when the verified token cache is enabled and the key that signed the token is still accepted.
+     * @return the verified token, to be used for every later check on the same request
+     */
+    public VerifiedToken verifyToken(String token) {
+        return verifiedTokenCache.get(token, rawToken -> {
+            Jws<Claims> jws = jwtParser.parseClaimsJws(rawToken);
+            return new VerifiedToken(jws.getBody(), jws.getHeader().getKeyId());
+        }, verifiedToken -> signingKeyRegistry.getVerificationKey(verifiedToken.getKeyId()) != null);
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -33,39 +81,64 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Boolean validateToken(String token, UserDetails userDetails) {
+        return validateToken(verifyToken(token), userDetails);
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    public Boolean validateToken(VerifiedToken verifiedToken, UserDetails userDetails) {
+        return (verifiedToken.getSubject().equals(userDetails.getUsername())
+                && !verifiedToken.isExpired(Instant.now()));
+    }
+
+    /**
+     * Rebuilds the user from the role and version claims of the token.
+     * @return the user details, or null when the token was issued without role claims
+     */
+    public MyUserDetails extractUserDetails(VerifiedToken verifiedToken) {
+        String roles = verifiedToken.getClaim(ROLES_CLAIM, String.class);
+        if (roles == null) {
+            return null;
+        }
+        return new MyUserDetails(verifiedToken.getSubject(), roles,
+                verifiedToken.getClaim(USER_VERSION_CLAIM, Integer.class));
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
     }
 
     public String generateToken(String userName) {
         Map<String, Object> claims = new HashMap<>();
         return createToken(claims, userName);
     }
-    private String createToken(Map<String, Object> claims, String userName) {
 
+    /**
+     * Generates a token that also carries the user's roles and version stamp, so it can be authorized
+     * without a database lookup.
+     */
+    public String generateToken(MyUserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLES_CLAIM, userDetails.getRoles());
+        if (userDetails.getVersion() != null) {
+            claims.put(USER_VERSION_CLAIM, userDetails.getVersion());
+        }
+        return createToken(claims, userDetails.getUsername());
+    }
+    private String createToken(Map<String, Object> claims, String userName) {
+        SigningKeyRegistry.SigningKey signingKey = signingKeyRegistry.getActiveKey();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.keyId())
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userName)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis()+1000*60*15))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .setExpiration(new Date(System.currentTimeMillis()+accessTokenTtl.toMillis()))
+                .signWith(signingKey.signingKey(), signingKey.algorithm())
                 .compact();
     }
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
@@ -1,15 +1,28 @@
 package com.dashboardapi.demo.service;
 
+import com.dashboardapi.demo.config.ReplicaRoutingDataSource;
+import com.dashboardapi.demo.config.ReplicaRoutingDataSource.PrimaryReads;
 import com.dashboardapi.demo.entity.MyUserDetails;
 import com.dashboardapi.demo.entity.User;
 import com.dashboardapi.demo.repository.UserRepository;
+import com.dashboardapi.demo.util.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class MyUserDetailsService implements UserDetailsService {
@@ -17,10 +30,116 @@ public class MyUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    private final boolean cacheEnabled;
+    // Unknown usernames are cached as Optional.empty() with a shorter lifetime than real users
+    private final Cache<String, Optional<MyUserDetails>> userDetailsCache;
+    private final SingleFlight<String, Optional<MyUserDetails>> loads = new SingleFlight<>();
+    // Bumped on every eviction; a load that overlapped one is returned but not cached, as it may be stale
+    private final AtomicLong evictions = new AtomicLong();
+    // Version of each user as last saved through this instance; one entry per changed user, never stale
+    private final Map<String, Integer> savedVersions = new ConcurrentHashMap<>();
+
+    public MyUserDetailsService(@Value("${users.cache.enabled:true}") boolean cacheEnabled,
+                                @Value("${users.cache.maximum-size:1000}") long maximumSize,
+                                @Value("${users.cache.ttl:5m}") Duration ttl,
+                                @Value("${users.cache.negative-ttl:30s}") Duration negativeTtl,
+                                MeterRegistry meterRegistry) {
+        this.cacheEnabled = cacheEnabled;
+        this.userDetailsCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new PositiveOrNegativeExpiry(ttl, negativeTtl))
+                .recordStats()
+                .build();
+        if (cacheEnabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, userDetailsCache, "users.details");
+        }
+    }
+
+    /**
+     * Concurrent misses for the same username share a single {@code findByUserName} query. The query runs outside
+     * the cache's own compute, which holds a monitor that would pin a virtual thread for the whole JDBC call.
+     */
     @Override
     public UserDetails loadUserByUsername(String userName) throws UsernameNotFoundException {
-        Optional<User> user = userRepository.findByUserName(userName);
-        return user.map(MyUserDetails::new)
-                .orElseThrow(() -> new UsernameNotFoundException("user not found "+userName));
+        Optional<MyUserDetails> userDetails = cacheEnabled ? getCached(userName) : findUserDetails(userName);
+        return userDetails.orElseThrow(() -> new UsernameNotFoundException("user not found "+userName));
+    }
+
+    private Optional<MyUserDetails> getCached(String userName) {
+        Optional<MyUserDetails> userDetails = userDetailsCache.getIfPresent(userName);
+        if (userDetails != null) {
+            return userDetails;
+        }
+        long evictionsBefore = evictions.get();
+        Optional<MyUserDetails> loaded = loads.load(userName, this::findUserDetails);
+        // Checked under the entry's lock: an eviction bumps the counter before invalidating, so it either prevents
+        // this put or removes what it put
+        userDetailsCache.asMap().compute(userName,
+                (name, present) -> evictions.get() == evictionsBefore ? loaded : present);
+        return loaded;
+    }
+
+    /**
+     * Drops the cached entry, positive or negative, after the user has been saved or changed.
+     */
+    public void evictUser(String userName) {
+        evictions.incrementAndGet();
+        userDetailsCache.invalidate(userName);
+    }
+
+    /**
+     * Drops the cached entry and remembers the saved version, so tokens stamped with an earlier one are
+     * recognised by {@link #isOutdated(String, Integer)}.
+     */
+    public void evictUser(User savedUser) {
+        if (savedUser.getVersion() != null) {
+            savedVersions.merge(savedUser.getUserName(), savedUser.getVersion(), Math::max);
+        }
+        evictUser(savedUser.getUserName());
+    }
+
+    /**
+     * Whether a token's user version stamp is older than the newest version this instance knows, from its own
+     * saves or its cache. Never queries the database, so a change made only through another instance is not
+     * seen here until the token expires.
+     */
+    public boolean isOutdated(String userName, Integer tokenVersion) {
+        Integer knownVersion = savedVersions.get(userName);
+        Optional<MyUserDetails> cached = userDetailsCache.getIfPresent(userName);
+        if (cached != null && cached.isPresent() && cached.get().getVersion() != null
+                && (knownVersion == null || cached.get().getVersion() > knownVersion)) {
+            knownVersion = cached.get().getVersion();
+        }
+        return knownVersion != null && (tokenVersion == null || tokenVersion < knownVersion);
+    }
+
+    // From the primary, so a user who has just signed up can log in while the replicas catch up, and is not
+    // cached as unknown meanwhile
+    private Optional<MyUserDetails> findUserDetails(String userName) {
+        try (PrimaryReads primaryReads = ReplicaRoutingDataSource.readFromPrimary()) {
+            Optional<User> user = userRepository.findByUserName(userName);
+            return user.map(MyUserDetails::new);
+        }
+    }
+
+    private record PositiveOrNegativeExpiry(Duration ttl, Duration negativeTtl)
+            implements Expiry<String, Optional<MyUserDetails>> {
+
+        @Override
+        public long expireAfterCreate(String userName, Optional<MyUserDetails> userDetails, long currentTime) {
+            return (userDetails.isPresent() ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String userName, Optional<MyUserDetails> userDetails,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(userName, userDetails, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String userName, Optional<MyUserDetails> userDetails,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
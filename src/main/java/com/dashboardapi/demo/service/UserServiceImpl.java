@@ -6,6 +6,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Objects;
+
 @Service
 public class UserServiceImpl implements UserService{
 
@@ -13,9 +15,35 @@ public class UserServiceImpl implements UserService{
     private UserRepository userRepository;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private MyUserDetailsService myUserDetailsService;
+
+    /**
+     * Creates the user, or updates the stored one when the body carries the id of an existing row. The version is
+     * never sent by clients, so a body with an id cannot simply be saved: Spring Data would persist it as new. The
+     * update bumps the version, which makes tokens stamped with the previous one outdated.
+     */
     @Override
     public User addNewUser(User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User existingUser = user.getId() == 0 ? null : userRepository.findById(user.getId()).orElse(null);
+        String encodedPassword = passwordEncoder.encode(user.getPassword());
+        User savedUser;
+        if (existingUser != null) {
+            String previousUserName = existingUser.getUserName();
+            existingUser.setUserName(user.getUserName());
+            existingUser.setPassword(encodedPassword);
+            existingUser.setRoles(user.getRoles());
+            savedUser = userRepository.save(existingUser);
+            if (!Objects.equals(previousUserName, savedUser.getUserName())) {
+                myUserDetailsService.evictUser(previousUserName);
+            }
+        } else {
+            user.setId(0);
+            user.setVersion(null);
+            user.setPassword(encodedPassword);
+            savedUser = userRepository.save(user);
+        }
+        myUserDetailsService.evictUser(savedUser);
+        return savedUser;
     }
 }
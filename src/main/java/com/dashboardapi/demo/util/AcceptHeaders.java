@@ -0,0 +1,86 @@
+package com.dashboardapi.demo.util;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Reads Accept and Accept-Encoding headers for responses that are written as ready-made bytes and so bypass the
+ * message converters and the container's compression.
+ */
+public final class AcceptHeaders {
+
+    private static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private AcceptHeaders() {
+    }
+
+    /**
+     * Whether JSON is what the message converters would pick: the header is absent, or its most preferred type
+     * that JSON, CBOR or Smile matches is one JSON matches. A refused ({@code q=0}) or unparsable type never matches.
+     */
+    public static boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_CBOR) || mediaType.includes(APPLICATION_SMILE)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the client accepts a gzip content coding: {@code gzip} (or {@code x-gzip}) is listed with a non-zero
+     * weight, or it is not listed and {@code *} is. An explicit {@code q=0} refuses it, as does a weight that does
+     * not parse.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim();
+            boolean accepted = isAccepted(parts);
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                return accepted;
+            }
+            if (coding.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static boolean isAccepted(String[] codingAndParameters) {
+        for (int i = 1; i < codingAndParameters.length; i++) {
+            String parameter = codingAndParameters[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim()) > 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -4,5 +4,15 @@ public class ApplicationConstants {
     public static final String DASHBOARD_RECORD_DELETED_SUCCESSFULLY = "Dashboard record deleted successfully";
     public static final String DASHBOARD_RECORD_NOT_PRESENT = "Dashboard record is not present in DB";
     public static final String REQUESTED_DASHBOARD_DETAILS_ARE_GIVEN_HERE = "Requested Dashboard details are given here";
+    public static final String BULK_UPDATE_ID_REQUIRED = "Dashboard id is required for an update";
+    public static final String BULK_CHUNK_ROLLED_BACK = "Chunk rolled back, the item was not written";
+    public static final String DASHBOARD_VERSION_CONFLICT = "Dashboard record was changed by another request";
+    public static final String DASHBOARD_CHANGES_EXPIRED = "Watermark is older than the retained deletes, a full resync is required";
+    public static final String PAGE_CURSOR_INVALID = "Page cursor is invalid";
+    public static final String REFRESH_TOKEN_INVALID = "Refresh token is invalid or expired";
+    public static final String TOKEN_INVALID = "Token is missing, malformed or not signed by this service";
+    public static final String TOKEN_REVOKED_SUCCESSFULLY = "Token revoked successfully";
+    public static final String USER_TOKENS_REVOKED_SUCCESSFULLY = "All tokens of the user revoked successfully";
+    public static final String PASSWORD_HASHING_CAPACITY_EXCEEDED = "Too many authentication requests, please retry later";
 
 }
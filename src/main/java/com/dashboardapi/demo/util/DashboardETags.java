@@ -0,0 +1,78 @@
+package com.dashboardapi.demo.util;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.error.DashboardVersionConflictException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * ETags derived from dashboard ids and versions, so they can be computed without serializing the body.
+ * A single dashboard gets the strong ETag {@code "<id>-<version>"}, which If-Match compares against. A list gets a
+ * weak ETag over a digest of its ids and versions: it names the same dashboards in every media type and content
+ * encoding, and unlike a strong one it lets the server compress the response.
+ */
+public final class DashboardETags {
+
+    private static final String ANY = "*";
+
+    private DashboardETags() {
+    }
+
+    public static String of(Dashboard dashboard) {
+        return "\"" + dashboard.getId() + "-" + version(dashboard) + "\"";
+    }
+
+    public static String ofList(List<Dashboard> dashboards, String nextCursor) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        for (Dashboard dashboard : dashboards) {
+            buffer.clear();
+            buffer.putLong(Objects.requireNonNullElse(dashboard.getId(), 0L)).putInt(version(dashboard));
+            digest.update(buffer.array());
+        }
+        if (nextCursor != null) {
+            digest.update(nextCursor.getBytes(StandardCharsets.US_ASCII));
+        }
+        byte[] hash = Arrays.copyOf(digest.digest(), 16);
+        return "W/\"l-" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+    }
+
+    /**
+     * Returns the version the If-Match header expects the dashboard to have, or {@code null} for {@code *}.
+     * Anything that is not a strong ETag of this dashboard can never match and is rejected as a conflict.
+     */
+    public static Integer expectedVersion(String ifMatch, Long dashboardId) throws DashboardVersionConflictException {
+        String etag = ifMatch.trim();
+        if (ANY.equals(etag)) {
+            return null;
+        }
+        String prefix = "\"" + dashboardId + "-";
+        if (!etag.startsWith(prefix) || !etag.endsWith("\"") || etag.length() <= prefix.length() + 1) {
+            throw new DashboardVersionConflictException(ApplicationConstants.DASHBOARD_VERSION_CONFLICT);
+        }
+        try {
+            return Integer.valueOf(etag.substring(prefix.length(), etag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new DashboardVersionConflictException(ApplicationConstants.DASHBOARD_VERSION_CONFLICT);
+        }
+    }
+
+    private static int version(Dashboard dashboard) {
+        return Objects.requireNonNullElse(dashboard.getVersion(), 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
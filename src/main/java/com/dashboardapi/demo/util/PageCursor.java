@@ -0,0 +1,49 @@
+package com.dashboardapi.demo.util;
+
+import com.dashboardapi.demo.error.InvalidPageCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursors. Clients must treat them as tokens; the encoding is versioned so it can change later.
+ */
+public final class PageCursor {
+
+    private static final String PREFIX = "v1:";
+
+    private PageCursor() {
+    }
+
+    public static String encode(long... keys) {
+        StringBuilder cursor = new StringBuilder(PREFIX);
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                cursor.append(':');
+            }
+            cursor.append(keys[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(cursor.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static long[] decode(String cursor, int expectedKeys) throws InvalidPageCursorException {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidPageCursorException(ApplicationConstants.PAGE_CURSOR_INVALID);
+            }
+            String[] parts = decoded.substring(PREFIX.length()).split(":");
+            if (parts.length != expectedKeys) {
+                throw new InvalidPageCursorException(ApplicationConstants.PAGE_CURSOR_INVALID);
+            }
+            long[] keys = new long[expectedKeys];
+            for (int i = 0; i < expectedKeys; i++) {
+                keys[i] = Long.parseLong(parts[i]);
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageCursorException(ApplicationConstants.PAGE_CURSOR_INVALID);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.dashboardapi.demo.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the loader, callers arriving while it runs
+ * wait for and share its outcome, whether a value, {@code null} or an exception. Nothing is remembered once the
+ * load completes, so this is no cache; callers that arrive later start a new load.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder joined = new LongAdder();
+
+    /**
+     * Runs the loader for the key, or joins a load of the same key already in progress. Waiters park only for as
+     * long as that load takes. Unchecked exceptions from the loader are rethrown as is to every caller.
+     */
+    public V load(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            joined.increment();
+            return await(existing);
+        }
+        try {
+            call.complete(loader.apply(key));
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, call);
+        }
+        return await(call);
+    }
+
+    // Number of callers so far that shared another caller's load instead of running their own
+    public long getJoinedCount() {
+        return joined.sum();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.dashboardapi.demo.config;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.entity.User;
+import com.dashboardapi.demo.service.DashboardService;
+import com.dashboardapi.demo.service.MyUserDetailsService;
+import com.dashboardapi.demo.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Three embedded databases stand in for a primary and two replicas. Each holds a different version of the same
+ * rows, without replication between them, so the data a query returns shows which pool served it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingDataSourceTest.PRIMARY_URL,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "dashboards.datasource.replica-urls=" + ReplicaRoutingDataSourceTest.REPLICA_1_URL + ","
+                + ReplicaRoutingDataSourceTest.REPLICA_2_URL,
+        "dashboards.cache.enabled=false",
+        "users.cache.enabled=false"})
+public class ReplicaRoutingDataSourceTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER";
+    static final String REPLICA_1_URL = "jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER";
+    static final String REPLICA_2_URL = "jdbc:h2:mem:replica2;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER";
+
+    private static final Long SEEDED_ID = 1_000_000L;
+
+    private static final Map<String, String> DATABASES = Map.of(
+            "primary", PRIMARY_URL, "replica-1", REPLICA_1_URL, "replica-2", REPLICA_2_URL);
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private MyUserDetailsService myUserDetailsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcTemplate primary = database("primary");
+        List<String> schema = primary.queryForList("SCRIPT NODATA", String.class);
+        for (String name : DATABASES.keySet()) {
+            JdbcTemplate database = database(name);
+            if (!name.equals("primary")) {
+                database.execute("DROP ALL OBJECTS");
+                schema.forEach(database::execute);
+            } else {
+                database.update("DELETE FROM dashboard");
+                database.update("DELETE FROM user");
+            }
+            // The same rows everywhere, each database naming itself in title and roles; ids clear of the sequences
+            database.update("INSERT INTO dashboard (id, title, version) VALUES (?, ?, 0)", SEEDED_ID, name);
+            database.update("INSERT INTO user (id, user_name, password, roles, version) VALUES (?, 'carol', 'x', ?, 0)",
+                    SEEDED_ID, name);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Read-only queries are served by the replicas in turn")
+    public void whenReadOnly_thenServedByReplicasRoundRobin() throws Exception {
+        Set<String> servedBy = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            servedBy.add(dashboardService.getAllDashboards().get(0).getTitle());
+        }
+        servedBy.add(listedTitle());
+
+        assertEquals(Set.of("replica-1", "replica-2"), servedBy);
+        assertEquals(Set.of("replica-1", "replica-2"), Set.of(listedTitle(), listedTitle()));
+    }
+
+    @Test
+    @DisplayName("Cache loads, delta sync and credential lookups read the primary while the replicas lag")
+    public void whenReplicasLag_thenReadsThatOutliveTheRequestServedByPrimary() throws Exception {
+        // Committed on the primary only, as if the replicas had not applied them yet
+        database("primary").update("INSERT INTO dashboard (id, title, version, updated_date) VALUES (?, ?, 0, ?)",
+                SEEDED_ID + 1, "not replicated", LocalDateTime.now().minusMinutes(1));
+        database("primary").update(
+                "INSERT INTO user (id, user_name, password, roles, version) VALUES (?, 'erin', 'x', 'USER', 0)",
+                SEEDED_ID + 1);
+        authenticate("frank");
+        double replicaConnections = connections("replica-1") + connections("replica-2");
+
+        assertEquals("primary", dashboardService.getDashboardById(SEEDED_ID).getTitle());
+        assertEquals("not replicated", dashboardService.getDashboardById(SEEDED_ID + 1).getTitle());
+        assertEquals(List.of("not replicated"), dashboardService.getDashboardChanges(null, 100).getUpdated()
+                .stream().map(Dashboard::getTitle).toList());
+        assertEquals("erin", myUserDetailsService.loadUserByUsername("erin").getUsername());
+        assertEquals("primary",
+                myUserDetailsService.loadUserByUsername("carol").getAuthorities().iterator().next().getAuthority());
+
+        assertEquals(replicaConnections, connections("replica-1") + connections("replica-2"));
+        // None of them counted as a write, so other reads by the same user stay on the replicas
+        assertEquals(Set.of("replica-1", "replica-2"), Set.of(listedTitle(), listedTitle()));
+    }
+
+    @Test
+    @DisplayName("Writes go to the primary only")
+    public void whenWriting_thenServedByPrimary() throws Exception {
+        double primaryConnections = connections("primary");
+        double replicaConnections = connections("replica-1") + connections("replica-2");
+
+        Long savedId = dashboardService.saveDashboard(Dashboard.builder().title("Saved").build()).getId();
+        dashboardService.updateDashboard(SEEDED_ID, Dashboard.builder().title("Renamed").build());
+        userService.addNewUser(new User(0, "dave", "password", "USER", null));
+
+        assertEquals(List.of("Saved"), titles("primary", savedId));
+        assertEquals(List.of("Renamed"), titles("primary", SEEDED_ID));
+        assertEquals(1, database("primary").queryForList("SELECT id FROM user WHERE user_name = 'dave'").size());
+        for (String replica : List.of("replica-1", "replica-2")) {
+            assertEquals(List.of(), titles(replica, savedId));
+            assertEquals(List.of(replica), titles(replica, SEEDED_ID));
+            assertEquals(0, database(replica).queryForList("SELECT id FROM user WHERE user_name = 'dave'").size());
+        }
+        assertTrue(connections("primary") >= primaryConnections + 3);
+        assertEquals(replicaConnections, connections("replica-1") + connections("replica-2"));
+    }
+
+    @Test
+    @DisplayName("After their own write a user reads from the primary, while other users stay on the replicas")
+    public void whenUserHasWritten_thenTheirReadsServedByPrimary() throws Exception {
+        authenticate("bob");
+        String bobBefore = listedTitle();
+
+        authenticate("alice");
+        dashboardService.updateDashboard(SEEDED_ID, Dashboard.builder().title("Alice's title").build());
+
+        assertEquals("Alice's title", listedTitle());
+        assertEquals("Alice's title", dashboardService.getAllDashboards().get(0).getTitle());
+        authenticate("bob");
+        assertEquals(Set.of("replica-1", "replica-2"), Set.of(bobBefore, listedTitle()));
+    }
+
+    private String listedTitle() throws Exception {
+        return dashboardService.getDashboardPage(null, 10).getItems().get(0).getTitle();
+    }
+
+    private void authenticate(String userName) {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(userName, null, List.of()));
+    }
+
+    private List<String> titles(String database, Long id) {
+        return database(database).queryForList("SELECT title FROM dashboard WHERE id = ?", String.class, id);
+    }
+
+    private double connections(String pool) {
+        return meterRegistry.get("dashboards.datasource.connections").tag("pool", pool).counter().count();
+    }
+
+    private static JdbcTemplate database(String name) {
+        return new JdbcTemplate(new DriverManagerDataSource(DATABASES.get(name), "sa", ""));
+    }
+}
@@ -1,14 +1,27 @@
 package com.dashboardapi.demo.controller;
 
+import com.dashboardapi.demo.config.JacksonConfig;
+import com.dashboardapi.demo.dto.BulkItemResult;
+import com.dashboardapi.demo.dto.DashboardChanges;
+import com.dashboardapi.demo.dto.DashboardPage;
 import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.error.DashboardChangesExpiredException;
 import com.dashboardapi.demo.error.DashboardRecordNotFoundException;
+import com.dashboardapi.demo.error.DashboardVersionConflictException;
 import com.dashboardapi.demo.filter.JwtAuthFilter;
+import com.dashboardapi.demo.security.RefreshTokenStore;
+import com.dashboardapi.demo.service.DashboardChangeFeed;
+import com.dashboardapi.demo.service.DashboardListSnapshot;
 import com.dashboardapi.demo.service.DashboardService;
 import com.dashboardapi.demo.service.JwtService;
 import com.dashboardapi.demo.util.ApplicationConstants;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,25 +30,35 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(DashboardController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(JacksonConfig.class)
 public class DashboardControllerTest {
 
     @Autowired
@@ -53,6 +76,15 @@ public class DashboardControllerTest {
     @MockBean
     JwtAuthFilter jwtAuthFilter;
 
+    @MockBean
+    RefreshTokenStore refreshTokenStore;
+
+    @MockBean
+    DashboardChangeFeed dashboardChangeFeed;
+
+    @MockBean
+    DashboardListSnapshot dashboardListSnapshot;
+
     @Test
     @DisplayName("Get all Dashboard information")
     public void whenRequestedForAllInfo_thenReturnAllDashboardData() throws Exception {
@@ -71,7 +103,7 @@ public class DashboardControllerTest {
 
         Mockito.when(dashboardService.getAllDashboards()).thenReturn(List.of(dashboard1, dashboard2));
 
-        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/dashboards"))
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/dashboards").param("unpaged", "true"))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("[0].title").value(dashboard1.getTitle()))
@@ -98,7 +130,7 @@ public class DashboardControllerTest {
     public void whenNoDataInDB_ThenReturnEmptyResponse() throws Exception {
         Mockito.when(dashboardService.getAllDashboards()).thenReturn(new ArrayList<>());
 
-        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/dashboards"))
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/dashboards").param("unpaged", "true"))
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andReturn();
@@ -109,6 +141,134 @@ public class DashboardControllerTest {
         Assertions.assertEquals(Collections.emptyList(), responseList);
     }
 
+    @Test
+    @DisplayName("Serve the unpaged list from the list snapshot, gzipped when accepted and 304 when unchanged")
+    public void whenListSnapshotBuilt_thenServedFromSnapshot() throws Exception {
+        byte[] json = "[{\"id\":1,\"title\":\"Test Title 5\"}]".getBytes(StandardCharsets.UTF_8);
+        byte[] gzipped = {31, -117, 8, 0};
+        Mockito.when(dashboardListSnapshot.current())
+                .thenReturn(new DashboardListSnapshot.Snapshot(1, "W/\"l-abc\"", json, gzipped, System.nanoTime()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/dashboards").param("unpaged", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"l-abc\""))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("[0].title").value("Test Title 5"));
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/dashboards").param("unpaged", "true")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+        Assertions.assertArrayEquals(gzipped, result.getResponse().getContentAsByteArray());
+        mockMvc.perform(MockMvcRequestBuilders.get("/dashboards").param("unpaged", "true")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("[0].title").value("Test Title 5"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/dashboards").param("unpaged", "true")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"l-abc\""))
+                .andExpect(status().isNotModified());
+        Mockito.verify(dashboardService, Mockito.never()).getAllDashboards();
+    }
+
+    @Test
+    @DisplayName("Serialize the unpaged list per request when the Accept header refuses or ranks JSON below CBOR")
+    public void whenJsonNotPreferred_thenListSnapshotNotServed() throws Exception {
+        byte[] json = "[{\"id\":1,\"title\":\"Test Title 5\"}]".getBytes(StandardCharsets.UTF_8);
+        Mockito.when(dashboardListSnapshot.current())
+                .thenReturn(new DashboardListSnapshot.Snapshot(1, "W/\"l-abc\"", json, json, System.nanoTime()));
+        Mockito.when(dashboardService.getAllDashboards())
+                .thenReturn(List.of(Dashboard.builder().id(1L).title("Test Title 5").build()));
+
+        for (String accept : new String[]{"application/json;q=0, application/cbor", "application/cbor, application/json;q=0.5"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/dashboards").param("unpaged", "true")
+                            .header(HttpHeaders.ACCEPT, accept))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        }
+        Mockito.verify(dashboardService, Mockito.times(2)).getAllDashboards();
+        mockMvc.perform(MockMvcRequestBuilders.get("/dashboards").param("unpaged", "true")
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0"))
+                .andExpect(status().isOk());
+        Mockito.verify(dashboardService, Mockito.times(3)).getAllDashboards();
+    }
+
+    @Test
+    @DisplayName("Get a page of Dashboard information with the cursor of the next page")
+    public void whenRequestedForPage_thenReturnPageWithNextCursor() throws Exception {
+
+        Dashboard dashboard1 = Dashboard.builder()
+                .id(1L)
+                .title("Test Title 5")
+                .createdAt(LocalDateTime.of(2024, 01, 10, 18, 10, 15))
+                .updatedAt(LocalDateTime.of(2024, 01, 15, 18, 10, 15))
+                .build();
+
+        Mockito.when(dashboardService.getDashboardPage(null, 1))
+                .thenReturn(new DashboardPage(List.of(dashboard1), "next-cursor"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/dashboards").param("limit", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value(dashboard1.getTitle()))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"));
+    }
+
+    @Test
+    @DisplayName("Export all Dashboards as newline-delimited JSON")
+    public void whenExportRequested_thenReturnOneJsonDocumentPerLine() throws Exception {
+
+        Dashboard dashboard1 = Dashboard.builder()
+                .id(1L)
+                .title("Test Title 5")
+                .createdAt(LocalDateTime.of(2024, 01, 10, 18, 10, 15))
+                .updatedAt(LocalDateTime.of(2024, 01, 15, 18, 10, 15))
+                .build();
+        Dashboard dashboard2 = Dashboard.builder()
+                .id(2L)
+                .title("Test Title 6")
+                .createdAt(LocalDateTime.of(2024, 02, 20, 18, 10, 15))
+                .updatedAt(LocalDateTime.of(2024, 03, 23, 18, 10, 15))
+                .build();
+
+        Mockito.doAnswer(invocation -> {
+            Consumer<Dashboard> consumer = invocation.getArgument(0);
+            consumer.accept(dashboard1);
+            consumer.accept(dashboard2);
+            return null;
+        }).when(dashboardService).exportDashboards(any());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/dashboards/export"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        ObjectMapper responseMapper = new ObjectMapper();
+        responseMapper.registerModule(new JavaTimeModule());
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertEquals(dashboard1, responseMapper.readValue(lines[0], Dashboard.class));
+        Assertions.assertEquals(dashboard2, responseMapper.readValue(lines[1], Dashboard.class));
+    }
+
+    @Test
+    @DisplayName("Gzip the export only when Accept-Encoding gives gzip a non-zero weight")
+    public void whenExportRequested_thenGzipOnlyWhenAccepted() throws Exception {
+        for (String refused : new String[]{"gzip;q=0", "deflate, gzip; q=0.0", "*;q=0", "identity"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/dashboards/export")
+                            .header(HttpHeaders.ACCEPT_ENCODING, refused))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        }
+        for (String accepted : new String[]{"gzip", "deflate, gzip;q=0.5", "br;q=1.0, *;q=0.1", "X-GZIP"}) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/dashboards/export")
+                            .header(HttpHeaders.ACCEPT_ENCODING, accepted))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        }
+    }
+
     @Test
     @DisplayName("Return successful response when new Dashboard is added")
     public void whenNewDashboardAdded_ThenReturnSuccessfulResponse() throws Exception {
@@ -142,6 +302,26 @@ public class DashboardControllerTest {
         Assertions.assertEquals(dashboard1.getUpdatedAt(), responseDashboard.getUpdatedAt());
     }
 
+    @Test
+    @DisplayName("Return one result per item when dashboards are written in bulk")
+    public void whenBulkWriteRequested_thenReturnResultPerItem() throws Exception {
+        Mockito.when(dashboardService.bulkWriteDashboards(any())).thenReturn(List.of(
+                new BulkItemResult(BulkItemResult.Operation.CREATE, 0, 7L, HttpStatus.CREATED, null),
+                new BulkItemResult(BulkItemResult.Operation.DELETE, 0, 53L, HttpStatus.NOT_FOUND,
+                        ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT)));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/dashboards/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"creates\":[{\"title\":\"Bulk Title\"}],\"deletes\":[53]}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].operation").value("CREATE"))
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[1].message").value(ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT));
+    }
+
     @Test
     @DisplayName("Return successful response when a dashboard record is deleted")
     public void whenDashboardDeleted_thenReturnSuccessResponse() throws Exception {
@@ -240,6 +420,201 @@ public class DashboardControllerTest {
         MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/dashboards/53"))
                 .andDo(print())
                 .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.message").value(ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT))
                 .andReturn();
     }
+
+    @Test
+    @DisplayName("Return changed and deleted dashboards with the next watermark")
+    public void whenChangesRequested_thenReturnDelta() throws Exception {
+        Dashboard dashboard1 = Dashboard.builder().id(1L).title("Renamed").build();
+        Mockito.when(dashboardService.getDashboardChanges(eq("wm-1"), any()))
+                .thenReturn(new DashboardChanges(List.of(dashboard1), List.of(3L), "wm-2", false));
+        Mockito.when(dashboardService.getDashboardChanges(eq("wm-0"), any()))
+                .thenThrow(new DashboardChangesExpiredException(ApplicationConstants.DASHBOARD_CHANGES_EXPIRED));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/dashboards/changes").param("since", "wm-1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated[0].title").value("Renamed"))
+                .andExpect(jsonPath("$.deleted[0]").value(3))
+                .andExpect(jsonPath("$.watermark").value("wm-2"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/dashboards/changes").param("since", "wm-0"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    @DisplayName("Return 304 without a body when the dashboard ETag matches If-None-Match")
+    public void whenDashboardUnchanged_thenReturnNotModified() throws Exception {
+        Dashboard dashboard1 = Dashboard.builder()
+                .id(1L)
+                .title("Test Title 5")
+                .version(3)
+                .build();
+        Mockito.when(dashboardService.getDashboardById(any())).thenReturn(dashboard1);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/dashboards/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/dashboards/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andReturn();
+        Assertions.assertEquals("", result.getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Return 304 for an unchanged page of dashboards")
+    public void whenPageUnchanged_thenReturnNotModified() throws Exception {
+        Dashboard dashboard1 = Dashboard.builder().id(1L).title("Test Title 5").version(0).build();
+        Mockito.when(dashboardService.getDashboardPage(any(), any()))
+                .thenReturn(new DashboardPage(List.of(dashboard1), null));
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get("/dashboards"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/dashboards").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        dashboard1.setVersion(1);
+        mockMvc.perform(MockMvcRequestBuilders.get("/dashboards").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Apply the update with the version from If-Match and return the new ETag")
+    public void whenIfMatchGiven_thenUpdateWithExpectedVersion() throws Exception {
+        Dashboard updated = Dashboard.builder().id(1L).title("Renamed").version(4).build();
+        Mockito.when(dashboardService.updateDashboard(any(), any(), any())).thenReturn(updated);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/dashboards/1")
+                        .header(HttpHeaders.IF_MATCH, "\"1-3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed\"}"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""));
+
+        Mockito.verify(dashboardService).updateDashboard(eq(1L), any(), eq(3));
+    }
+
+    @Test
+    @DisplayName("Return 412 when If-Match does not match the stored version")
+    public void whenIfMatchStale_thenReturnPreconditionFailed() throws Exception {
+        Mockito.when(dashboardService.updateDashboard(any(), any(), any()))
+                .thenThrow(new DashboardVersionConflictException(ApplicationConstants.DASHBOARD_VERSION_CONFLICT));
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/dashboards/1")
+                        .header(HttpHeaders.IF_MATCH, "\"1-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/dashboards/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"1-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("A concurrent update lost on commit is 412 with If-Match and 409 without")
+    public void whenOptimisticLockFails_thenPreconditionFailedOnlyWithIfMatch() throws Exception {
+        ObjectOptimisticLockingFailureException lostUpdate = new ObjectOptimisticLockingFailureException(Dashboard.class,
+                1L, new IllegalStateException("Row was updated or deleted by another transaction"));
+        Mockito.when(dashboardService.updateDashboard(any(), any())).thenThrow(lostUpdate);
+        Mockito.when(dashboardService.updateDashboard(any(), any(), any())).thenThrow(lostUpdate);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/dashboards/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("CONFLICT"))
+                .andExpect(jsonPath("$.message").value(ApplicationConstants.DASHBOARD_VERSION_CONFLICT))
+                .andExpect(jsonPath("$.cause").value(Matchers.nullValue()));
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/dashboards/1")
+                        .header(HttpHeaders.IF_MATCH, "\"1-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("Return the dashboard as CBOR, with the same timestamp text as JSON, when the client accepts CBOR")
+    public void whenCborAccepted_thenReturnCbor() throws Exception {
+        Dashboard dashboard1 = Dashboard.builder()
+                .id(1L)
+                .title("Test Title 5")
+                .createdAt(LocalDateTime.of(2024, 01, 10, 18, 10, 15))
+                .version(0)
+                .build();
+        Mockito.when(dashboardService.getDashboardById(any())).thenReturn(dashboard1);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/dashboards/1")
+                        .accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/cbor"))
+                .andReturn();
+        JsonNode response = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+
+        Assertions.assertEquals("Test Title 5", response.get("title").asText());
+        Assertions.assertEquals("2024-01-10 18:10:15", response.get("createdAt").asText());
+    }
+
+    @Test
+    @DisplayName("Return the not-found error as CBOR when the client accepts CBOR")
+    public void whenCborAcceptedAndNotFound_thenReturnCborError() throws Exception {
+        Mockito.when(dashboardService.getDashboardById(any()))
+                .thenThrow(new DashboardRecordNotFoundException(ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/dashboards/53")
+                        .accept("application/cbor"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/cbor"))
+                .andReturn();
+        JsonNode response = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+
+        Assertions.assertEquals("NOT_FOUND", response.get("status").asText());
+        Assertions.assertEquals(ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT, response.get("message").asText());
+    }
+
+    @Test
+    @DisplayName("Read a Smile request body and answer in Smile")
+    public void whenSmileRequestBody_thenReturnSmile() throws Exception {
+        Dashboard dashboard1 = Dashboard.builder()
+                .id(5L)
+                .title("Test Title 5")
+                .createdAt(LocalDateTime.of(2024, 01, 15, 10, 10, 10))
+                .version(0)
+                .build();
+        Mockito.when(dashboardService.saveDashboard(any())).thenReturn(dashboard1);
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        smileMapper.registerModule(new JavaTimeModule());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/dashboards")
+                        .contentType("application/x-jackson-smile")
+                        .accept("application/x-jackson-smile")
+                        .content(smileMapper.writeValueAsBytes(Dashboard.builder()
+                                .title("Test Title 5")
+                                .createdAt(LocalDateTime.of(2024, 01, 15, 10, 10, 10))
+                                .build())))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-jackson-smile"))
+                .andReturn();
+
+        Mockito.verify(dashboardService).saveDashboard(eq(Dashboard.builder()
+                .title("Test Title 5")
+                .createdAt(LocalDateTime.of(2024, 01, 15, 10, 10, 10))
+                .build()));
+        Dashboard responseDashboard = smileMapper.readValue(result.getResponse().getContentAsByteArray(), Dashboard.class);
+        Assertions.assertEquals(dashboard1.getId(), responseDashboard.getId());
+        Assertions.assertEquals(dashboard1.getCreatedAt(), responseDashboard.getCreatedAt());
+    }
 }
@@ -0,0 +1,69 @@
+package com.dashboardapi.demo.controller;
+
+import com.dashboardapi.demo.config.JacksonConfig;
+import com.dashboardapi.demo.filter.JwtAuthFilter;
+import com.dashboardapi.demo.security.RefreshTokenStore;
+import com.dashboardapi.demo.security.TokenRevocationList;
+import com.dashboardapi.demo.service.JwtService;
+import com.dashboardapi.demo.service.MyUserDetailsService;
+import com.dashboardapi.demo.util.ApplicationConstants;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TokenController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(JacksonConfig.class)
+public class TokenControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    RefreshTokenStore refreshTokenStore;
+
+    @MockBean
+    JwtService jwtService;
+
+    @MockBean
+    MyUserDetailsService myUserDetailsService;
+
+    @MockBean
+    TokenRevocationList tokenRevocationList;
+
+    @MockBean
+    JwtAuthFilter jwtAuthFilter;
+
+    @Test
+    @DisplayName("Return 400 when the token to revoke is malformed, badly signed or missing")
+    public void whenRevokingInvalidToken_thenReturnBadRequest() throws Exception {
+        Mockito.when(jwtService.verifyToken(eq("not-a-jwt"))).thenThrow(new MalformedJwtException("malformed"));
+        Mockito.when(jwtService.verifyToken(eq("forged"))).thenThrow(new SignatureException("bad signature"));
+        Mockito.when(jwtService.verifyToken(eq(null))).thenThrow(new IllegalArgumentException("empty"));
+
+        for (String body : new String[]{"{\"token\":\"not-a-jwt\"}", "{\"token\":\"forged\"}", "{}"}) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/admin/tokens/revoke")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value(ApplicationConstants.TOKEN_INVALID));
+        }
+        Mockito.verify(tokenRevocationList, Mockito.never()).revokeToken(any(), any());
+        Mockito.verify(tokenRevocationList, Mockito.never()).revokeUser(any());
+    }
+}
@@ -0,0 +1,106 @@
+package com.dashboardapi.demo.filter;
+
+import com.dashboardapi.demo.entity.MyUserDetails;
+import com.dashboardapi.demo.entity.User;
+import com.dashboardapi.demo.repository.UserRepository;
+import com.dashboardapi.demo.security.SigningKeyRegistry;
+import com.dashboardapi.demo.security.TokenRevocationList;
+import com.dashboardapi.demo.security.VerifiedTokenCache;
+import com.dashboardapi.demo.service.JwtService;
+import com.dashboardapi.demo.service.MyUserDetailsService;
+import com.dashboardapi.demo.service.UserService;
+import com.dashboardapi.demo.service.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+
+// H2 otherwise rejects the user table name
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:jwtauthfilter;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "jwt.authorization-mode=TOKEN"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JwtAuthFilter.class, JwtService.class, SigningKeyRegistry.class, VerifiedTokenCache.class,
+        TokenRevocationList.class, UserServiceImpl.class, MyUserDetailsService.class, SimpleMeterRegistry.class,
+        JwtAuthFilterTest.PlainPasswords.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class JwtAuthFilterTest {
+
+    @Autowired
+    private JwtAuthFilter jwtAuthFilter;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MyUserDetailsService myUserDetailsService;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("In token mode, role claims are trusted until the user is updated through POST /users")
+    public void whenUserUpdatedAfterTokenIssued_thenRolesLoadedFromDatabase() throws Exception {
+        User created = userService.addNewUser(new User(0, "user", "password", "USER", null));
+        String token = jwtService.generateToken((MyUserDetails) myUserDetailsService.loadUserByUsername("user"));
+        Mockito.clearInvocations(userRepository);
+
+        assertEquals(AuthorityUtils.createAuthorityList("USER"), authenticate(token).getAuthorities());
+        Mockito.verify(userRepository, Mockito.never()).findByUserName(anyString());
+
+        // The body of POST /users: an existing id, never a version
+        User updated = userService.addNewUser(new User(created.getId(), "user", "password", "ADMIN", null));
+
+        assertEquals(created.getId(), updated.getId());
+        assertEquals(created.getVersion() + 1, updated.getVersion());
+        assertEquals(1, userRepository.count());
+        assertEquals(AuthorityUtils.createAuthorityList("ADMIN"), authenticate(token).getAuthorities());
+        Mockito.verify(userRepository).findByUserName("user");
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dashboards");
+        request.addHeader("Authorization", "Bearer " + token);
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    static class PlainPasswords {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return NoOpPasswordEncoder.getInstance();
+        }
+    }
+}
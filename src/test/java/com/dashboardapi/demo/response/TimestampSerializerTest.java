@@ -0,0 +1,87 @@
+package com.dashboardapi.demo.response;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TimestampSerializerTest {
+
+    private final ObjectMapper tunedMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new BlackbirdModule())
+            .build();
+
+    // Serializes Dashboard the way it was before TimestampSerializer and Blackbird
+    private final ObjectMapper baselineMapper = Jackson2ObjectMapperBuilder.json()
+            .mixIn(Dashboard.class, JsonFormatTimestamps.class)
+            .build();
+
+    @Test
+    @DisplayName("Timestamps are written exactly as the @JsonFormat pattern writes them")
+    public void whenTimestampSerialized_thenSameTextAsPattern() throws Exception {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(TimestampSerializer.PATTERN);
+        List<LocalDateTime> values = List.of(
+                LocalDateTime.of(2024, 1, 5, 3, 4, 5),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_999_999),
+                LocalDateTime.of(1, 1, 1, 0, 0),
+                LocalDateTime.of(999, 9, 9, 9, 9, 9),
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+                LocalDateTime.of(10000, 1, 1, 0, 0),
+                LocalDateTime.of(0, 6, 15, 12, 0),
+                LocalDateTime.of(-42, 6, 15, 12, 0));
+        for (LocalDateTime value : values) {
+            Dashboard dashboard = Dashboard.builder().createdAt(value).build();
+            assertEquals("\"" + formatter.format(value) + "\"",
+                    tunedMapper.readTree(tunedMapper.writeValueAsString(dashboard)).get("createdAt").toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Dashboard JSON is byte for byte what it was before the serialization changes")
+    public void whenDashboardSerialized_thenUnchanged() throws Exception {
+        List<Dashboard> dashboards = List.of(
+                Dashboard.builder().id(1L).title("Sales \"Q1\"").version(3)
+                        .createdAt(LocalDateTime.of(2024, 1, 10, 18, 10, 15))
+                        .updatedAt(LocalDateTime.of(2024, 1, 15, 8, 0, 1, 500)).build(),
+                Dashboard.builder().id(2L).build());
+
+        assertEquals(baselineMapper.writeValueAsString(dashboards), tunedMapper.writeValueAsString(dashboards));
+    }
+
+    @Test
+    @DisplayName("The response envelope writes the same JSON as the HashMap it replaced")
+    public void whenEnvelopeSerialized_thenUnchanged() throws Exception {
+        Dashboard dashboard = Dashboard.builder().id(1L).title("Test Title").build();
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", "Requested dashboard details are given here");
+        map.put("httpStatus", HttpStatus.OK);
+        map.put("data", dashboard);
+
+        Object body = ResponseHandler.responseBuilder("Requested dashboard details are given here",
+                HttpStatus.OK, dashboard).getBody();
+
+        assertEquals(baselineMapper.writeValueAsString(map), tunedMapper.writeValueAsString(body));
+    }
+
+    abstract static class JsonFormatTimestamps {
+
+        @JsonSerialize(using = JsonSerializer.None.class)
+        private LocalDateTime createdAt;
+
+        @JsonSerialize(using = JsonSerializer.None.class)
+        private LocalDateTime updatedAt;
+    }
+}
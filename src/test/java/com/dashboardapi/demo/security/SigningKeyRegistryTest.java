@@ -0,0 +1,122 @@
+package com.dashboardapi.demo.security;
+
+import com.dashboardapi.demo.service.JwtService;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SigningKeyRegistryTest {
+
+    private static final Duration ACCESS_TOKEN_TTL = Duration.ofMinutes(15);
+
+    private final MutableClock clock = new MutableClock(Instant.now());
+
+    @Test
+    @DisplayName("With an asymmetric algorithm, tokens signed with the public HS256 secret are rejected from startup")
+    public void whenAsymmetric_thenLegacyTokenRejected() {
+        JwtService jwtService = jwtService(new SigningKeyRegistry(SignatureAlgorithm.ES256, ACCESS_TOKEN_TTL, clock), true);
+
+        assertThrows(JwtException.class, () -> jwtService.verifyToken(legacyToken(null)));
+        assertThrows(JwtException.class, () -> jwtService.verifyToken(legacyToken(SigningKeyRegistry.LEGACY_KEY_ID)));
+        assertEquals("user", jwtService.verifyToken(jwtService.generateToken("user")).getSubject());
+    }
+
+    @Test
+    @DisplayName("A cached token is rejected once the key that signed it has been dropped, even before its own exp")
+    public void whenSigningKeyDropped_thenCachedTokenRejected() {
+        SigningKeyRegistry signingKeyRegistry = new SigningKeyRegistry(SignatureAlgorithm.ES256, ACCESS_TOKEN_TTL, clock);
+        JwtService jwtService = jwtService(signingKeyRegistry, true);
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKeyRegistry.getActiveKey().keyId())
+                .setSubject("user")
+                .setExpiration(new Date(System.currentTimeMillis() + Duration.ofDays(1).toMillis()))
+                .signWith(signingKeyRegistry.getActiveKey().signingKey(), SignatureAlgorithm.ES256)
+                .compact();
+        assertEquals("user", jwtService.verifyToken(token).getSubject());
+
+        signingKeyRegistry.rotate();
+        assertEquals("user", jwtService.verifyToken(token).getSubject());
+        clock.advance(ACCESS_TOKEN_TTL.plusMinutes(2));
+
+        assertThrows(JwtException.class, () -> jwtService.verifyToken(token));
+    }
+
+    @Test
+    @DisplayName("With HS256 the shared secret stays the active key and is never retired")
+    public void whenHs256_thenLegacyKeyNeverRetired() {
+        SigningKeyRegistry signingKeyRegistry = new SigningKeyRegistry(SignatureAlgorithm.HS256, ACCESS_TOKEN_TTL, clock);
+        JwtService jwtService = jwtService(signingKeyRegistry, false);
+
+        clock.advance(Duration.ofDays(30));
+        signingKeyRegistry.rotate();
+
+        assertEquals("user", jwtService.verifyToken(legacyToken(null)).getSubject());
+    }
+
+    private static JwtService jwtService(SigningKeyRegistry signingKeyRegistry, boolean tokenCacheEnabled) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "signingKeyRegistry", signingKeyRegistry);
+        ReflectionTestUtils.setField(jwtService, "verifiedTokenCache",
+                new VerifiedTokenCache(tokenCacheEnabled, 100, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(jwtService, "accessTokenTtl", ACCESS_TOKEN_TTL);
+        return jwtService;
+    }
+
+    // Signed with the public shared secret, as anyone could
+    private static String legacyToken(String keyId) {
+        JwtBuilder builder = Jwts.builder()
+                .setSubject("user")
+                .setExpiration(new Date(System.currentTimeMillis() + Duration.ofHours(1).toMillis()))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtService.SECRET)), SignatureAlgorithm.HS256);
+        if (keyId != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, keyId);
+        }
+        return builder.compact();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
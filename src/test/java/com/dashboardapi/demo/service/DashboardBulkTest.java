@@ -0,0 +1,123 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.dto.BulkItemResult;
+import com.dashboardapi.demo.dto.DashboardBulkRequest;
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.repository.DashboardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "dashboards.bulk.chunk-size=100"
+})
+@Import({DashboardServiceImpl.class, DashboardCache.class, SimpleMeterRegistry.class})
+public class DashboardBulkTest {
+
+    private static final int ITEM_COUNT = 250;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardRepository dashboardRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Bulk creates are sent as JDBC batches with pooled id allocation")
+    public void whenBulkCreating_thenInsertsAreBatched() {
+        List<Dashboard> creates = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            creates.add(dashboard("Bulk Title " + i));
+        }
+        statistics.clear();
+
+        List<BulkItemResult> results = dashboardService.bulkWriteDashboards(
+                DashboardBulkRequest.builder().creates(creates).build());
+
+        assertEquals(ITEM_COUNT, results.size());
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(HttpStatus.CREATED, results.get(i).getStatus());
+        }
+        assertEquals(ITEM_COUNT, results.stream().map(BulkItemResult::getId).distinct().count());
+        assertEquals(ITEM_COUNT, statistics.getEntityInsertCount());
+        // 5 insert batches of 50 plus one sequence call per 50 ids, instead of one round trip per row
+        assertTrue(statistics.getPrepareStatementCount() <= 12,
+                "prepared " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(ITEM_COUNT, dashboardRepository.count());
+    }
+
+    @Test
+    @DisplayName("Bulk updates and deletes load each chunk once and report missing ids per item")
+    public void whenBulkUpdatingAndDeleting_thenEachChunkCostsAFewStatements() {
+        List<Dashboard> saved = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            saved.add(dashboard("Bulk Title " + i));
+        }
+        saved = dashboardRepository.saveAll(saved);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Dashboard> updates = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            updates.add(Dashboard.builder().id(saved.get(i).getId()).title("Renamed " + i).build());
+            deletes.add(saved.get(100 + i).getId());
+        }
+        updates.add(Dashboard.builder().id(-1L).title("Missing").build());
+        updates.add(Dashboard.builder().title("No id").build());
+        deletes.add(-1L);
+        statistics.clear();
+
+        List<BulkItemResult> results = dashboardService.bulkWriteDashboards(
+                DashboardBulkRequest.builder().updates(updates).deletes(deletes).build());
+
+        assertEquals(updates.size() + deletes.size(), results.size());
+        assertEquals(200, results.stream().filter(result -> result.getStatus() == HttpStatus.OK).count());
+        assertEquals(HttpStatus.NOT_FOUND, results.get(100).getStatus());
+        assertEquals(100, results.get(100).getIndex());
+        assertEquals(HttpStatus.BAD_REQUEST, results.get(101).getStatus());
+        assertEquals(HttpStatus.NOT_FOUND, results.get(results.size() - 1).getStatus());
+        assertEquals(100, statistics.getEntityUpdateCount());
+        // Dynamic updates are not JDBC-batched, so each changed row is one update; loading the rows and deleting
+        // them stay at one select, one delete and one tombstone insert batch per chunk
+        assertTrue(statistics.getPrepareStatementCount() <= 100 + 10,
+                "prepared " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(ITEM_COUNT - 100, dashboardRepository.count());
+        assertEquals("Renamed 0", dashboardRepository.findById(saved.get(0).getId()).get().getTitle());
+    }
+
+    private Dashboard dashboard(String title) {
+        return Dashboard.builder()
+                .title(title)
+                .createdAt(LocalDateTime.of(2024,01,10,18,10,15))
+                .updatedAt(LocalDateTime.of(2024,01,15,18,10,15))
+                .build();
+    }
+}
@@ -0,0 +1,309 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.dto.DashboardBulkRequest;
+import com.dashboardapi.demo.dto.DashboardSnapshot;
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.error.DashboardRecordNotFoundException;
+import com.dashboardapi.demo.repository.DashboardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not transactional, so service writes really commit and after-commit cache updates fire
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DashboardServiceImpl.class, DashboardCache.class, SimpleMeterRegistry.class})
+public class DashboardCacheTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardRepository dashboardRepository;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long dashboardId;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        dashboardId = dashboardRepository.save(Dashboard.builder()
+                .title("Test Title 5")
+                .createdAt(LocalDateTime.of(2024,01,10,18,10,15))
+                .updatedAt(LocalDateTime.of(2024,01,15,18,10,15))
+                .build()).getId();
+        dashboardCache.invalidateAll();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dashboardRepository.deleteAll();
+        dashboardCache.invalidateAll();
+    }
+
+    @Test
+    @DisplayName("Repeated reads of a dashboard are served from the cache")
+    public void whenReadTwice_thenLoadedOnce() throws DashboardRecordNotFoundException {
+        statistics.clear();
+
+        dashboardService.getDashboardById(dashboardId);
+        Dashboard dashboard = dashboardService.getDashboardById(dashboardId);
+
+        assertEquals("Test Title 5", dashboard.getTitle());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Parallel cache misses for the same dashboard run exactly one query")
+    public void whenReadInParallelOnMiss_thenOneQuery() throws Exception {
+        int callers = 32;
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            statistics.clear();
+            List<Future<String>> titles = new ArrayList<>();
+            List<Thread> threads = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                titles.add(executor.submit(() -> {
+                    threads.add(Thread.currentThread());
+                    // Every caller but the loading one parks inside the cache; the loader then waits to be released
+                    return dashboardCache.get(dashboardId, id -> {
+                        awaitQuietly(release);
+                        return dashboardRepository.findById(id).map(DashboardSnapshot::from).orElse(null);
+                    }).title();
+                }));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (threads.size() < callers
+                    || threads.stream().filter(thread -> thread.getState() == Thread.State.WAITING).count() < callers) {
+                assertTrue(System.nanoTime() < deadline, "callers did not all start waiting");
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<String> title : titles) {
+                assertEquals("Test Title 5", title.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, statistics.getPrepareStatementCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Changing a returned dashboard does not change the cached copy")
+    public void whenReturnedDashboardModified_thenCacheUnaffected() throws DashboardRecordNotFoundException {
+        dashboardService.getDashboardById(dashboardId).setTitle("Changed by caller");
+
+        assertEquals("Test Title 5", dashboardService.getDashboardById(dashboardId).getTitle());
+    }
+
+    @Test
+    @DisplayName("An update is visible to the next read once committed, and not before")
+    public void whenUpdated_thenCacheInvalidatedAfterCommit() throws DashboardRecordNotFoundException {
+        dashboardService.getDashboardById(dashboardId);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                dashboardService.updateDashboard(dashboardId, Dashboard.builder().title("Renamed").build());
+            } catch (DashboardRecordNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+            assertNotNull(dashboardCache.getIfPresent(dashboardId));
+        });
+
+        assertNull(dashboardCache.getIfPresent(dashboardId));
+        assertEquals("Renamed", dashboardService.getDashboardById(dashboardId).getTitle());
+    }
+
+    @Test
+    @DisplayName("A rolled back update leaves the cached dashboard in place")
+    public void whenUpdateRolledBack_thenCacheKept() throws DashboardRecordNotFoundException {
+        dashboardService.getDashboardById(dashboardId);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                dashboardService.updateDashboard(dashboardId, Dashboard.builder().title("Renamed").build());
+            } catch (DashboardRecordNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+
+        assertEquals("Test Title 5", dashboardCache.getIfPresent(dashboardId).title());
+    }
+
+    @Test
+    @DisplayName("An update that changes nothing keeps the cached dashboard")
+    public void whenUpdatedWithSameValues_thenCacheKept() throws DashboardRecordNotFoundException {
+        dashboardService.getDashboardById(dashboardId);
+        DashboardSnapshot cached = dashboardCache.getIfPresent(dashboardId);
+        assertNotNull(cached);
+
+        dashboardService.updateDashboard(dashboardId, Dashboard.builder().title("Test Title 5").build());
+        dashboardService.saveDashboard(Dashboard.builder().id(dashboardId).title("Test Title 5").build());
+        dashboardService.bulkWriteDashboards(DashboardBulkRequest.builder()
+                .updates(List.of(Dashboard.builder().id(dashboardId).title("Test Title 5").build())).build());
+
+        assertSame(cached, dashboardCache.getIfPresent(dashboardId));
+    }
+
+    @Test
+    @DisplayName("A deleted dashboard is no longer served from the cache")
+    public void whenDeleted_thenNotFound() throws DashboardRecordNotFoundException {
+        dashboardService.getDashboardById(dashboardId);
+
+        dashboardService.deleteDashboardById(dashboardId);
+
+        assertThrows(DashboardRecordNotFoundException.class, () -> dashboardService.getDashboardById(dashboardId));
+    }
+
+    @Test
+    @DisplayName("A read that overlaps an invalidation is returned but not cached")
+    public void whenInvalidatedDuringLoad_thenLoadNotCached() {
+        DashboardSnapshot snapshot = dashboardCache.get(dashboardId, id -> {
+            DashboardSnapshot loaded = dashboardRepository.findById(id).map(DashboardSnapshot::from).orElse(null);
+            dashboardCache.onDashboardChanged(DashboardChangedEvent.deleted(id));
+            return loaded;
+        });
+
+        assertEquals("Test Title 5", snapshot.title());
+        assertNull(dashboardCache.getIfPresent(dashboardId));
+    }
+
+    @Test
+    @DisplayName("A saved dashboard is put in the cache")
+    public void whenSaved_thenCached() {
+        Dashboard saved = dashboardService.saveDashboard(Dashboard.builder().title("New Title").build());
+
+        assertEquals("New Title", dashboardCache.getIfPresent(saved.getId()).title());
+    }
+
+    @Test
+    @DisplayName("An unknown id is queried once, then rejected from the negative cache until it is created")
+    public void whenUnknownIdRequested_thenNotFoundCachedUntilCreated() throws DashboardRecordNotFoundException {
+        Long nextId = dashboardId + 1;
+        statistics.clear();
+
+        DashboardRecordNotFoundException notFound = assertThrows(DashboardRecordNotFoundException.class,
+                () -> dashboardService.getDashboardById(nextId));
+        assertThrows(DashboardRecordNotFoundException.class, () -> dashboardService.getDashboardById(nextId));
+        assertThrows(DashboardRecordNotFoundException.class, () -> dashboardService.deleteDashboardById(nextId));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, notFound.getStackTrace().length);
+
+        Dashboard saved = dashboardService.saveDashboard(Dashboard.builder().title("New Title").build());
+        assertEquals(nextId, saved.getId());
+        assertEquals("New Title", dashboardService.getDashboardById(nextId).getTitle());
+    }
+
+    @Test
+    @DisplayName("A delete of an unknown id is remembered, so the next delete runs no query")
+    public void whenUnknownIdDeleted_thenNextDeleteNotQueried() {
+        statistics.clear();
+
+        assertThrows(DashboardRecordNotFoundException.class, () -> dashboardService.deleteDashboardById(-1L));
+        assertThrows(DashboardRecordNotFoundException.class, () -> dashboardService.deleteDashboardById(-1L));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getTransactionCount());
+    }
+
+    @Test
+    @DisplayName("A not-found lookup that overlaps a create is returned but not remembered")
+    public void whenCreatedDuringMissingLoad_thenNotCachedAsMissing() {
+        Long unknownId = dashboardId + 100;
+
+        DashboardSnapshot snapshot = dashboardCache.get(unknownId, id -> {
+            dashboardCache.onDashboardChanged(DashboardChangedEvent.created(
+                    Dashboard.builder().id(id).title("Created meanwhile").build()));
+            return null;
+        });
+
+        assertNull(snapshot);
+        assertFalse(dashboardCache.isKnownMissing(unknownId));
+    }
+
+    @Test
+    @DisplayName("An invalidation that lands between the end of a load and its put is never lost")
+    public void whenInvalidatedAsLoadCompletes_thenStaleRowNeverCached() throws Exception {
+        DashboardCache cache = new DashboardCache(true, 100_000, Duration.ofMinutes(5), 100, Duration.ofSeconds(30),
+                new SimpleMeterRegistry());
+        ExecutorService committer = Executors.newSingleThreadExecutor();
+        try {
+            for (long id = 1; id <= 20_000; id++) {
+                Dashboard current = Dashboard.builder().id(id).title("Renamed").version(1).build();
+                DashboardSnapshot previous = new DashboardSnapshot(id, "Test Title 5", null, null, 0);
+                AtomicBoolean loaded = new AtomicBoolean();
+                // Commits the update as soon as the load has read the previous row
+                Future<?> commit = committer.submit(() -> {
+                    while (!loaded.get()) {
+                        Thread.onSpinWait();
+                    }
+                    cache.onDashboardChanged(DashboardChangedEvent.updated(current));
+                });
+
+                cache.get(id, key -> {
+                    loaded.set(true);
+                    return previous;
+                });
+                commit.get(5, TimeUnit.SECONDS);
+
+                assertNull(cache.getIfPresent(id), "previous row cached after the update committed, id " + id);
+            }
+        } finally {
+            committer.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DashboardChangeFeedTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DashboardChangeFeed feed;
+
+    @AfterEach
+    public void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    @DisplayName("Every subscriber receives committed changes in order")
+    public void whenChangesPublished_thenFannedOutInOrder() throws Exception {
+        feed = feed(10, 10);
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+        feed.subscribe(null, first);
+        feed.subscribe(null, second);
+
+        feed.onDashboardChanged(DashboardChangedEvent.created(dashboard(1L)));
+        feed.onDashboardChanged(DashboardChangedEvent.updated(dashboard(1L)));
+        feed.onDashboardChanged(DashboardChangedEvent.deleted(1L));
+
+        for (RecordingSink sink : List.of(first, second)) {
+            await(() -> sink.events.size() == 3);
+            assertEquals(List.of("created", "updated", "deleted"),
+                    sink.events.stream().map(DashboardChangeFeed.FeedEvent::name).toList());
+            assertEquals(List.of(1L, 2L, 3L), sink.events.stream().map(DashboardChangeFeed.FeedEvent::id).toList());
+        }
+        assertTrue(first.events.get(0).data().contains("\"title\":\"Test Title 1\""));
+        assertEquals("{\"type\":\"deleted\",\"id\":1,\"dashboard\":null}", first.events.get(2).data());
+        assertEquals(6, meterRegistry.get("dashboards.feed.fanout").timer().count());
+    }
+
+    @Test
+    @DisplayName("A reconnecting subscriber receives the events after its Last-Event-ID")
+    public void whenResumedWithinReplay_thenMissedEventsReplayed() throws Exception {
+        feed = feed(10, 10);
+        for (long id = 1; id <= 5; id++) {
+            feed.onDashboardChanged(DashboardChangedEvent.updated(dashboard(id)));
+        }
+        RecordingSink sink = new RecordingSink();
+
+        feed.subscribe(feed.eventId(2), sink);
+        feed.onDashboardChanged(DashboardChangedEvent.deleted(1L));
+
+        await(() -> sink.events.size() == 4);
+        assertEquals(List.of(3L, 4L, 5L, 6L), sink.events.stream().map(DashboardChangeFeed.FeedEvent::id).toList());
+    }
+
+    @Test
+    @DisplayName("A position no longer in the replay buffer, or never handed out, gets a reset event")
+    public void whenResumedOutsideReplay_thenReset() throws Exception {
+        feed = feed(3, 10);
+        for (long id = 1; id <= 6; id++) {
+            feed.onDashboardChanged(DashboardChangedEvent.updated(dashboard(id)));
+        }
+
+        for (String lastEventId : List.of(feed.eventId(1), feed.eventId(99), "5", feed.eventId(5) + "x", "not-a-number")) {
+            RecordingSink sink = new RecordingSink();
+            feed.subscribe(lastEventId, sink);
+            await(() -> sink.events.size() == 1);
+            assertEquals(DashboardChangeFeed.RESET_EVENT, sink.events.get(0).name());
+            assertEquals(6L, sink.events.get(0).id());
+        }
+    }
+
+    @Test
+    @DisplayName("A position handed out before a restart gets a reset event even when the sequence is still replayable")
+    public void whenResumedFromPreviousBoot_thenReset() throws Exception {
+        feed = feed(10, 10);
+        feed.onDashboardChanged(DashboardChangedEvent.updated(dashboard(1L)));
+        String beforeRestart = feed.eventId(1);
+        feed.shutdown();
+
+        feed = feed(10, 10);
+        for (long id = 1; id <= 3; id++) {
+            feed.onDashboardChanged(DashboardChangedEvent.updated(dashboard(id)));
+        }
+        RecordingSink sink = new RecordingSink();
+        feed.subscribe(beforeRestart, sink);
+
+        await(() -> sink.events.size() == 1);
+        assertEquals(DashboardChangeFeed.RESET_EVENT, sink.events.get(0).name());
+        assertEquals(3L, sink.events.get(0).id());
+    }
+
+    @Test
+    @DisplayName("A subscriber that cannot keep up is closed without holding back the others")
+    public void whenSubscriberTooSlow_thenClosed() throws Exception {
+        feed = feed(10, 2);
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void send(DashboardChangeFeed.FeedEvent event) throws IOException {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(event);
+            }
+        };
+        RecordingSink fast = new RecordingSink();
+        DashboardChangeFeed.Subscriber slowSubscriber = feed.subscribe(null, slow);
+        feed.subscribe(null, fast);
+
+        for (long id = 1; id <= 10; id++) {
+            feed.onDashboardChanged(DashboardChangedEvent.updated(dashboard(id)));
+            // The fast subscriber drains each event before the next one arrives
+            int delivered = (int) id;
+            await(() -> fast.events.size() == delivered);
+        }
+
+        assertTrue(slowSubscriber.isClosed());
+        assertTrue(slow.closed);
+        assertFalse(fast.closed);
+        assertEquals(1, feed.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.get("dashboards.feed.subscribers.dropped").counter().count());
+        unblock.countDown();
+    }
+
+    @Test
+    @DisplayName("Clients whose writes block forever hold no thread that other subscribers need")
+    public void whenManyWritesBlock_thenOtherSubscribersStillDelivered() throws Exception {
+        feed = feed(10, 2);
+        CountDownLatch unblock = new CountDownLatch(1);
+        List<RecordingSink> stuck = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            RecordingSink sink = new RecordingSink() {
+                @Override
+                public void send(DashboardChangeFeed.FeedEvent event) throws IOException {
+                    // A socket write to a client that stopped reading
+                    try {
+                        unblock.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            stuck.add(sink);
+            feed.subscribe(null, sink);
+        }
+        RecordingSink healthy = new RecordingSink();
+        feed.subscribe(null, healthy);
+
+        for (long id = 1; id <= 10; id++) {
+            feed.onDashboardChanged(DashboardChangedEvent.updated(dashboard(id)));
+            int delivered = (int) id;
+            await(() -> healthy.events.size() == delivered);
+        }
+
+        assertFalse(healthy.closed);
+        assertTrue(stuck.stream().allMatch(sink -> sink.closed));
+        assertEquals(1, feed.getSubscriberCount());
+        unblock.countDown();
+    }
+
+    private DashboardChangeFeed feed(int replaySize, int subscriberBuffer) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        return new DashboardChangeFeed(replaySize, subscriberBuffer, Duration.ofMinutes(1), objectMapper, meterRegistry);
+    }
+
+    private static Dashboard dashboard(Long id) {
+        return Dashboard.builder().id(id).title("Test Title " + id).version(0).build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(1);
+        }
+    }
+
+    static class RecordingSink implements DashboardChangeFeed.Sink {
+
+        final List<DashboardChangeFeed.FeedEvent> events = new CopyOnWriteArrayList<>();
+        volatile boolean closed;
+
+        @Override
+        public void send(DashboardChangeFeed.FeedEvent event) throws IOException {
+            events.add(event);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
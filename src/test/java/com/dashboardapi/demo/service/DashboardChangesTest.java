@@ -0,0 +1,141 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.dto.DashboardChanges;
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.error.DashboardChangesExpiredException;
+import com.dashboardapi.demo.error.DashboardRecordNotFoundException;
+import com.dashboardapi.demo.error.InvalidPageCursorException;
+import com.dashboardapi.demo.repository.DashboardRepository;
+import com.dashboardapi.demo.util.PageCursor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "dashboards.changes.settle-window=PT0S",
+        "dashboards.changes.tombstone-retention=P1D"
+})
+@Import({DashboardServiceImpl.class, DashboardCache.class, SimpleMeterRegistry.class})
+public class DashboardChangesTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardRepository dashboardRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Long> dashboardIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        for (int i = 0; i < 5; i++) {
+            Long dashboardId = dashboardRepository.save(Dashboard.builder().title("Test Title " + i).build()).getId();
+            dashboardIds.add(dashboardId);
+            backdate("dashboard", "updated_date", "id", dashboardId, 120);
+        }
+    }
+
+    @Test
+    @DisplayName("A first sync returns every dashboard, and syncing again from its watermark returns nothing")
+    public void whenSyncedFromScratch_thenAllDashboardsThenNothing() throws Exception {
+        DashboardChanges changes = dashboardService.getDashboardChanges(null, null);
+
+        assertEquals(dashboardIds, changes.getUpdated().stream().map(Dashboard::getId).toList());
+        assertTrue(changes.getDeleted().isEmpty());
+        assertFalse(changes.isHasMore());
+
+        DashboardChanges next = dashboardService.getDashboardChanges(changes.getWatermark(), null);
+        assertTrue(next.getUpdated().isEmpty());
+        assertTrue(next.getDeleted().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Only dashboards updated or deleted after the watermark are returned")
+    public void whenChangedAfterWatermark_thenOnlyChangesReturned() throws Exception {
+        dashboardService.updateDashboard(dashboardIds.get(1), Dashboard.builder().title("Renamed").build());
+        dashboardService.deleteDashboardById(dashboardIds.get(3));
+        entityManager.flush();
+        backdate("dashboard", "updated_date", "id", dashboardIds.get(1), 30);
+        backdate("dashboard_tombstone", "deleted_at", "dashboard_id", dashboardIds.get(3), 30);
+
+        DashboardChanges changes = dashboardService.getDashboardChanges(watermarkSecondsAgo(60), null);
+
+        assertEquals(List.of(dashboardIds.get(1)), changes.getUpdated().stream().map(Dashboard::getId).toList());
+        assertEquals("Renamed", changes.getUpdated().get(0).getTitle());
+        assertEquals(List.of(dashboardIds.get(3)), changes.getDeleted());
+    }
+
+    @Test
+    @DisplayName("Paging through changes with a small limit neither skips nor repeats a dashboard")
+    public void whenPagedWithLimit_thenEveryChangeSeenOnce() throws Exception {
+        Set<Long> seen = new HashSet<>();
+        String watermark = null;
+        int calls = 0;
+        DashboardChanges changes;
+        do {
+            changes = dashboardService.getDashboardChanges(watermark, 2);
+            changes.getUpdated().forEach(dashboard -> assertTrue(seen.add(dashboard.getId())));
+            watermark = changes.getWatermark();
+            calls++;
+        } while (changes.isHasMore());
+
+        assertEquals(new HashSet<>(dashboardIds), seen);
+        assertEquals(3, calls);
+    }
+
+    @Test
+    @DisplayName("Changes stamped in the current second are held back until it has passed")
+    public void whenChangedThisSecond_thenNotYetReturned() throws DashboardRecordNotFoundException, Exception {
+        dashboardService.updateDashboard(dashboardIds.get(0), Dashboard.builder().title("Renamed").build());
+        entityManager.flush();
+
+        DashboardChanges changes = dashboardService.getDashboardChanges(watermarkSecondsAgo(60), null);
+
+        assertTrue(changes.getUpdated().isEmpty());
+    }
+
+    @Test
+    @DisplayName("A watermark older than the tombstone retention requires a full resync")
+    public void whenWatermarkExpired_thenGone() {
+        assertThrows(DashboardChangesExpiredException.class,
+                () -> dashboardService.getDashboardChanges(watermarkSecondsAgo(2 * 24 * 3600), null));
+        assertThrows(InvalidPageCursorException.class,
+                () -> dashboardService.getDashboardChanges("not-a-watermark", null));
+    }
+
+    private String watermarkSecondsAgo(long seconds) {
+        long epochMilli = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusSeconds(seconds)
+                .toInstant(ZoneOffset.UTC).toEpochMilli();
+        return PageCursor.encode(epochMilli, Long.MAX_VALUE, epochMilli, Long.MAX_VALUE);
+    }
+
+    private void backdate(String table, String column, String idColumn, Long id, long seconds) {
+        entityManager.flush();
+        entityManager.createNativeQuery("update " + table + " set " + column + " = ?1 where " + idColumn + " = ?2")
+                .setParameter(1, LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusSeconds(seconds))
+                .setParameter(2, id)
+                .executeUpdate();
+        entityManager.clear();
+    }
+}
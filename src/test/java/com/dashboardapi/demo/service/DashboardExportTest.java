@@ -0,0 +1,129 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.repository.DashboardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({DashboardServiceImpl.class, DashboardCache.class, SimpleMeterRegistry.class})
+public class DashboardExportTest {
+
+    private static final int ROW_COUNT = 2000;
+
+    private static final int LARGE_ROW_COUNT = 50_000;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardRepository dashboardRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    public void setUp() {
+        insertDashboards(ROW_COUNT);
+    }
+
+    @Test
+    @DisplayName("Export streams every dashboard without loading any entity into the persistence context")
+    public void whenExportingDashboards_thenPersistenceContextStaysConstant() {
+        Session session = entityManager.unwrap(Session.class);
+        AtomicInteger exported = new AtomicInteger();
+        AtomicLong lastId = new AtomicLong();
+        AtomicInteger maxManagedEntities = new AtomicInteger();
+
+        dashboardService.exportDashboards(dashboard -> {
+            assertTrue(dashboard.getId() > lastId.getAndSet(dashboard.getId()));
+            exported.incrementAndGet();
+            maxManagedEntities.accumulateAndGet(session.getStatistics().getEntityCount(), Math::max);
+        });
+
+        assertEquals(ROW_COUNT, exported.get());
+        assertEquals(0, maxManagedEntities.get());
+        assertEquals(0, session.getStatistics().getEntityCount());
+    }
+
+    @Test
+    @DisplayName("Exporting 25 times more rows allocates the same per row and retains no more heap")
+    public void whenExportingMoreRows_thenHeapStaysFlat() {
+        ExportCost small = measureExport(ROW_COUNT);
+        insertDashboards(LARGE_ROW_COUNT - ROW_COUNT);
+        ExportCost large = measureExport(LARGE_ROW_COUNT);
+
+        assertTrue(large.allocatedBytesPerRow() < small.allocatedBytesPerRow() * 3 / 2,
+                "allocated per row: " + small.allocatedBytesPerRow() + " then " + large.allocatedBytesPerRow());
+        // Holding 50,000 rows, even as snapshots rather than entities, retains several MB
+        assertTrue(large.retainedBytes() - small.retainedBytes() < 1024 * 1024,
+                "retained: " + small.retainedBytes() + " then " + large.retainedBytes());
+    }
+
+    /**
+     * Exports every dashboard and measures the bytes the export allocated, and the heap still in use, after a GC,
+     * when the last row reaches the consumer.
+     */
+    private ExportCost measureExport(int rowCount) {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        // The first export after the inserts releases what the session still held for them
+        dashboardService.exportDashboards(dashboard -> { });
+        long heapBefore = usedHeapAfterGc(memoryMXBean);
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        AtomicInteger exported = new AtomicInteger();
+        AtomicLong retainedBytes = new AtomicLong();
+
+        dashboardService.exportDashboards(dashboard -> {
+            if (exported.incrementAndGet() == rowCount) {
+                retainedBytes.set(usedHeapAfterGc(memoryMXBean) - heapBefore);
+            }
+        });
+
+        long allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        assertEquals(rowCount, exported.get());
+        return new ExportCost(allocatedBytes / rowCount, retainedBytes.get());
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memoryMXBean) {
+        System.gc();
+        System.gc();
+        return memoryMXBean.getHeapMemoryUsage().getUsed();
+    }
+
+    private void insertDashboards(int rowCount) {
+        List<Dashboard> dashboards = new ArrayList<>();
+        for (int i = 0; i < rowCount; i++) {
+            dashboards.add(Dashboard.builder()
+                    .title("Export Title " + i)
+                    .createdAt(LocalDateTime.of(2024,01,10,18,10,15))
+                    .updatedAt(LocalDateTime.of(2024,01,15,18,10,15))
+                    .build());
+        }
+        dashboardRepository.saveAll(dashboards);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private record ExportCost(long allocatedBytesPerRow, long retainedBytes) {
+    }
+}
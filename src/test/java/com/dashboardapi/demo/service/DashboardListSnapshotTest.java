@@ -0,0 +1,125 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.repository.DashboardRepository;
+import com.dashboardapi.demo.util.DashboardETags;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not transactional, so service writes really commit and after-commit rebuilds are scheduled
+@DataJpaTest(properties = "dashboards.list-snapshot.debounce=PT1S")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({DashboardServiceImpl.class, DashboardCache.class, DashboardListSnapshot.class, SimpleMeterRegistry.class})
+public class DashboardListSnapshotTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardRepository dashboardRepository;
+
+    @Autowired
+    private DashboardListSnapshot listSnapshot;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void tearDown() {
+        dashboardRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("The snapshot holds the list as the JSON converter would write it, plain and gzipped, with its ETag")
+    public void whenSnapshotBuilt_thenMatchesSerializedList() throws Exception {
+        dashboardService.saveDashboard(dashboard("Test Title 5"));
+        dashboardService.saveDashboard(dashboard("Test Title 6"));
+        List<Dashboard> dashboards = dashboardService.getAllDashboards();
+        byte[] expected = objectMapper.writerFor(new TypeReference<List<Dashboard>>() {
+        }).writeValueAsBytes(dashboards);
+
+        await(() -> listSnapshot.current() != null && Arrays.equals(expected, listSnapshot.current().json()));
+
+        DashboardListSnapshot.Snapshot snapshot = listSnapshot.current();
+        assertArrayEquals(snapshot.json(), gunzip(snapshot.gzippedJson()));
+        assertEquals(DashboardETags.ofList(dashboards, null), snapshot.eTag());
+    }
+
+    @Test
+    @DisplayName("A burst of writes is served the previous snapshot, then triggers a single rebuild")
+    public void whenBurstOfWrites_thenPreviousSnapshotServedAndRebuiltOnce() throws Exception {
+        DashboardListSnapshot.Snapshot before = awaitSnapshot(0);
+        double rebuildsBefore = rebuildCount();
+
+        for (int i = 0; i < 10; i++) {
+            dashboardService.saveDashboard(dashboard("Test Title " + i));
+        }
+        assertSame(before, listSnapshot.current());
+
+        DashboardListSnapshot.Snapshot after = awaitSnapshot(before.version());
+        assertEquals(before.version() + 1, after.version());
+        assertEquals(10, objectMapper.readTree(after.json()).size());
+        Thread.sleep(1500);
+        assertEquals(rebuildsBefore + 1, rebuildCount());
+    }
+
+    private DashboardListSnapshot.Snapshot awaitSnapshot(long newerThan) throws InterruptedException {
+        await(() -> listSnapshot.current() != null && listSnapshot.current().version() > newerThan);
+        return listSnapshot.current();
+    }
+
+    private double rebuildCount() {
+        return meterRegistry.get("dashboards.list.snapshot.rebuild").timer().count();
+    }
+
+    private static byte[] gunzip(byte[] gzipped) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return gzip.readAllBytes();
+        }
+    }
+
+    private static Dashboard dashboard(String title) {
+        return Dashboard.builder()
+                .title(title)
+                .createdAt(LocalDateTime.of(2024, 1, 10, 18, 10, 15))
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.dashboardapi.demo.service;
 
+import com.dashboardapi.demo.dto.DashboardSnapshot;
 import com.dashboardapi.demo.entity.Dashboard;
 import com.dashboardapi.demo.error.DashboardRecordNotFoundException;
+import com.dashboardapi.demo.error.DashboardVersionConflictException;
 import com.dashboardapi.demo.repository.DashboardRepository;
 import com.dashboardapi.demo.util.ApplicationConstants;
 import org.assertj.core.api.Assertions;
@@ -23,7 +25,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "dashboards.cache.enabled=false")
 public class DashboardServiceTest {
     @Autowired
     private DashboardService dashboardService;
@@ -46,7 +48,8 @@ public class DashboardServiceTest {
                 .updatedAt(LocalDateTime.of(2024,03,23,18,10,15))
                 .build();
 
-        Mockito.when(dashboardRepository.findAll()).thenReturn(List.of(dashboard1, dashboard2));
+        Mockito.when(dashboardRepository.findAllSnapshots())
+                .thenReturn(List.of(DashboardSnapshot.from(dashboard1), DashboardSnapshot.from(dashboard2)));
 
         List<Dashboard> dashboardList = dashboardService.getAllDashboards();
         assertEquals((long) dashboardList.size(), 2);
@@ -57,8 +60,8 @@ public class DashboardServiceTest {
     @Test
     @DisplayName("Get empty dashboard list when no data")
     public void whenNoDashboardData_thenReturnNothing() {
-        List<Dashboard> emptyDashboardList = new ArrayList<>();
-        Mockito.when(dashboardRepository.findAll()).thenReturn(emptyDashboardList);
+        List<DashboardSnapshot> emptyDashboardList = new ArrayList<>();
+        Mockito.when(dashboardRepository.findAllSnapshots()).thenReturn(emptyDashboardList);
 
         List<Dashboard> dashboardList = dashboardService.getAllDashboards();
         Assertions.assertThat(dashboardList.isEmpty());
@@ -83,7 +86,7 @@ public class DashboardServiceTest {
     @Test
     @DisplayName("Delete the dashboard when record not present in DB")
     public void whenRecordForDeletionNotFound_thenReturnMessage() throws DashboardRecordNotFoundException {
-        Mockito.when(dashboardRepository.findById(any())).thenReturn(Optional.empty());
+        Mockito.when(dashboardRepository.deleteDashboardById(any())).thenReturn(0);
         DashboardRecordNotFoundException dashboardRecordNotFoundException = assertThrows(DashboardRecordNotFoundException.class,
                 () -> dashboardService.deleteDashboardById(5L));
         assertEquals(dashboardRecordNotFoundException.getMessage(), ApplicationConstants.DASHBOARD_RECORD_NOT_PRESENT);
@@ -98,7 +101,7 @@ public class DashboardServiceTest {
                 .updatedAt(LocalDateTime.of(2024,01,15,18,10,15))
                 .build();
 
-        Mockito.when(dashboardRepository.findById(any())).thenReturn(Optional.of(dashboard1));
+        Mockito.when(dashboardRepository.deleteDashboardById(any())).thenReturn(1);
         /*
          1 way of implementation for dashboardService.deleteDashboardById(1L) which is of type void
 
@@ -109,7 +112,8 @@ public class DashboardServiceTest {
 
         // 2nd way of implementation of test case for dashboardService.deleteDashboardById(1L)
         dashboardService.deleteDashboardById(1L);
-        verify(dashboardRepository, times(1)).deleteById(1L);
+        verify(dashboardRepository, times(1)).deleteDashboardById(1L);
+        verify(dashboardRepository, never()).findById(any());
     }
 
     @Test
@@ -135,11 +139,44 @@ public class DashboardServiceTest {
                 .build();
 
         Mockito.when(dashboardRepository.findById(any())).thenReturn(Optional.of(dashboard1));
-        Mockito.when(dashboardService.saveDashboard(any())).thenReturn(dashboard1);
 
         Dashboard responseDashboard = dashboardService.updateDashboard(1L, dashboard1);
         assertEquals(responseDashboard.getTitle(), dashboard1.getTitle());
         assertEquals(responseDashboard.getCreatedAt(), dashboard1.getCreatedAt());
+        verify(dashboardRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Update the Dashboard request when the expected version matches")
+    public void whenExpectedVersionMatches_thenUpdate() throws Exception {
+        Dashboard dashboard1 = Dashboard.builder()
+                .id(1L)
+                .title("Test Title 5")
+                .version(3)
+                .build();
+
+        Mockito.when(dashboardRepository.findById(any())).thenReturn(Optional.of(dashboard1));
+
+        Dashboard responseDashboard = dashboardService.updateDashboard(1L,
+                Dashboard.builder().title("Renamed").build(), 3);
+        assertEquals("Renamed", responseDashboard.getTitle());
+    }
+
+    @Test
+    @DisplayName("Reject the Dashboard update when the stored version differs from the expected one")
+    public void whenExpectedVersionStale_thenReturnConflict() {
+        Dashboard dashboard1 = Dashboard.builder()
+                .id(1L)
+                .title("Test Title 5")
+                .version(4)
+                .build();
+
+        Mockito.when(dashboardRepository.findById(any())).thenReturn(Optional.of(dashboard1));
+
+        DashboardVersionConflictException dashboardVersionConflictException = assertThrows(DashboardVersionConflictException.class,
+                () -> dashboardService.updateDashboard(1L, Dashboard.builder().title("Renamed").build(), 3));
+        assertEquals(dashboardVersionConflictException.getMessage(), ApplicationConstants.DASHBOARD_VERSION_CONFLICT);
+        assertEquals("Test Title 5", dashboard1.getTitle());
     }
 
     @Test
@@ -151,18 +188,19 @@ public class DashboardServiceTest {
                 .updatedAt(LocalDateTime.of(2024,01,15,18,10,15))
                 .build();
 
-        Mockito.when(dashboardRepository.findById(any())).thenReturn(Optional.of(dashboard1));
+        Mockito.when(dashboardRepository.findSnapshotById(any())).thenReturn(Optional.of(DashboardSnapshot.from(dashboard1)));
 
         Dashboard responseDashboard = dashboardService.getDashboardById(1L);
         assertEquals(responseDashboard.getTitle(), dashboard1.getTitle());
         assertEquals(responseDashboard.getCreatedAt(), dashboard1.getCreatedAt());
+        verify(dashboardRepository, times(1)).findSnapshotById(1L);
     }
 
     @Test
     @DisplayName("Return the error response when searched by ID and record not present in DB")
     public void whenRecordIdIsNotPresent_thenReturnErrorMessage() throws DashboardRecordNotFoundException {
 
-        Mockito.when(dashboardRepository.findById(any())).thenReturn(Optional.empty());
+        Mockito.when(dashboardRepository.findSnapshotById(any())).thenReturn(Optional.empty());
 
         DashboardRecordNotFoundException dashboardRecordNotFoundException = assertThrows(DashboardRecordNotFoundException.class,
                 () -> dashboardService.getDashboardById(1L));
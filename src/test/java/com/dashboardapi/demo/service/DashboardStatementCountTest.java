@@ -0,0 +1,156 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.error.DashboardRecordNotFoundException;
+import com.dashboardapi.demo.repository.DashboardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.dashboardapi.demo.service.DashboardStatementCountTest$RecordingStatementInspector")
+@Import({DashboardServiceImpl.class, DashboardCache.class, SimpleMeterRegistry.class})
+public class DashboardStatementCountTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private DashboardRepository dashboardRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    private Long dashboardId;
+
+    @BeforeEach
+    public void setUp() {
+        dashboardId = dashboardRepository.save(Dashboard.builder()
+                .title("Test Title 5")
+                .createdAt(LocalDateTime.of(2024,01,10,18,10,15))
+                .updatedAt(LocalDateTime.of(2024,01,15,18,10,15))
+                .build()).getId();
+        entityManager.flush();
+        // updatedAt is stamped by the server; move it back so an update always changes it
+        entityManager.createNativeQuery("update dashboard set updated_date = ?1")
+                .setParameter(1, LocalDateTime.of(2024,01,15,18,10,15))
+                .executeUpdate();
+        entityManager.clear();
+        // Missing ids remembered by an earlier test would be rejected without their select
+        dashboardCache.invalidateAll();
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("Reading a dashboard by id costs one select")
+    public void whenReadById_thenOneStatement() throws DashboardRecordNotFoundException {
+        assertEquals("Test Title 5", dashboardService.getDashboardById(dashboardId).getTitle());
+        assertStatements("select");
+    }
+
+    @Test
+    @DisplayName("Reading a missing dashboard costs one select and still throws")
+    public void whenReadMissingId_thenOneStatementAndNotFound() {
+        assertThrows(DashboardRecordNotFoundException.class, () -> dashboardService.getDashboardById(-1L));
+        assertStatements("select");
+    }
+
+    @Test
+    @DisplayName("Deleting a dashboard costs one conditional delete and the tombstone insert")
+    public void whenDeleted_thenOneStatement() throws DashboardRecordNotFoundException {
+        dashboardService.deleteDashboardById(dashboardId);
+        entityManager.flush();
+        assertStatements("delete", "insert");
+        assertFalse(dashboardRepository.existsById(dashboardId));
+    }
+
+    @Test
+    @DisplayName("Deleting a missing dashboard costs one delete and still throws")
+    public void whenDeletingMissingId_thenOneStatementAndNotFound() {
+        assertThrows(DashboardRecordNotFoundException.class, () -> dashboardService.deleteDashboardById(-1L));
+        assertStatements("delete");
+    }
+
+    @Test
+    @DisplayName("Updating a dashboard costs one select and an update of the changed columns and the stamp only")
+    public void whenUpdated_thenOnlyChangedColumnsAreWritten() throws DashboardRecordNotFoundException {
+        dashboardService.updateDashboard(dashboardId, Dashboard.builder().title("Renamed").build());
+        entityManager.flush();
+
+        assertStatements("select", "update");
+        String update = RecordingStatementInspector.STATEMENTS.get(1);
+        assertTrue(update.contains("title"), update);
+        assertTrue(update.contains("updated_date"), update);
+        assertFalse(update.contains("created_date"), update);
+    }
+
+    @Test
+    @DisplayName("Updating a dashboard with unchanged values writes nothing")
+    public void whenUpdatedWithSameValues_thenNoUpdateStatement() throws DashboardRecordNotFoundException {
+        dashboardService.updateDashboard(dashboardId, Dashboard.builder().title("Test Title 5").build());
+        entityManager.flush();
+
+        assertStatements("select");
+    }
+
+    @Test
+    @DisplayName("Saving a body with the id of an existing dashboard updates that row instead of inserting")
+    public void whenSavedWithExistingId_thenRowUpdated() {
+        Dashboard saved = dashboardService.saveDashboard(Dashboard.builder().id(dashboardId).title("Renamed").build());
+        entityManager.flush();
+
+        assertStatements("select", "update");
+        assertEquals(dashboardId, saved.getId());
+        assertEquals(1, dashboardRepository.count());
+        entityManager.clear();
+        assertEquals("Renamed", dashboardRepository.findById(dashboardId).orElseThrow().getTitle());
+    }
+
+    @Test
+    @DisplayName("Saving a body with an id that matches no row creates a new dashboard")
+    public void whenSavedWithUnknownId_thenCreated() {
+        Dashboard saved = dashboardService.saveDashboard(Dashboard.builder().id(-5L).title("New Title").build());
+        entityManager.flush();
+
+        assertNotEquals(-5L, saved.getId());
+        assertEquals(2, dashboardRepository.count());
+    }
+
+    private void assertStatements(String... kinds) {
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        assertEquals(kinds.length, statements.size(), statements.toString());
+        for (int i = 0; i < kinds.length; i++) {
+            assertTrue(statements.get(i).startsWith(kinds[i]), statements.get(i));
+        }
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.trim().toLowerCase());
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.entity.User;
+import com.dashboardapi.demo.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class MyUserDetailsServiceTest {
+
+    @Test
+    @DisplayName("An eviction that lands between the end of a load and its put is never lost")
+    public void whenEvictedAsLoadCompletes_thenPreviousRolesNeverCached() throws Exception {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        MyUserDetailsService myUserDetailsService = new MyUserDetailsService(true, 100_000, Duration.ofMinutes(5),
+                Duration.ofSeconds(30), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(myUserDetailsService, "userRepository", userRepository);
+        Map<String, String> storedRoles = new ConcurrentHashMap<>();
+        AtomicBoolean loaded = new AtomicBoolean();
+        Mockito.when(userRepository.findByUserName(anyString())).thenAnswer(invocation -> {
+            String userName = invocation.getArgument(0);
+            User user = new User(1, userName, "password", storedRoles.get(userName), 0);
+            loaded.set(true);
+            return Optional.of(user);
+        });
+        ExecutorService committer = Executors.newSingleThreadExecutor();
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                String userName = "user" + i;
+                storedRoles.put(userName, "USER");
+                loaded.set(false);
+                // Commits a role change as soon as the load has read the previous row
+                Future<?> commit = committer.submit(() -> {
+                    while (!loaded.get()) {
+                        Thread.onSpinWait();
+                    }
+                    storedRoles.put(userName, "ADMIN");
+                    myUserDetailsService.evictUser(userName);
+                });
+
+                myUserDetailsService.loadUserByUsername(userName);
+                commit.get(5, TimeUnit.SECONDS);
+
+                assertEquals("ADMIN", myUserDetailsService.loadUserByUsername(userName)
+                        .getAuthorities().iterator().next().getAuthority(), "previous roles cached for " + userName);
+            }
+        } finally {
+            committer.shutdownNow();
+        }
+    }
+}
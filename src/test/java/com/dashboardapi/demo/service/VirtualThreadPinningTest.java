@@ -0,0 +1,142 @@
+package com.dashboardapi.demo.service;
+
+import com.dashboardapi.demo.entity.Dashboard;
+import com.dashboardapi.demo.entity.User;
+import com.dashboardapi.demo.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the request-path services on virtual threads against a database that blocks on every connection, and fails
+ * on any JFR jdk.VirtualThreadPinned event: a virtual thread that blocked while holding a monitor, such as a
+ * synchronized block or a cache compute around JDBC, and so held its carrier thread the whole time.
+ */
+// A real connection pool in front of H2, which otherwise rejects the user table name
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pinning;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DashboardServiceImpl.class, DashboardCache.class, MyUserDetailsService.class, SimpleMeterRegistry.class,
+        VirtualThreadPinningTest.SlowDatabase.class})
+public class VirtualThreadPinningTest {
+
+    private static final int REQUESTS = 50;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private MyUserDetailsService myUserDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Dashboard and user lookups never pin a carrier thread")
+    public void whenRunOnVirtualThreads_thenNoCarrierPinned() throws Exception {
+        userRepository.save(new User(0, "pinning-user", "password", "USER", null));
+        Long sharedId = dashboardService.saveDashboard(Dashboard.builder().title("Shared").build()).getId();
+        List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            recording.startAsync();
+
+            List<Future<?>> requests = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < REQUESTS; i++) {
+                    int request = i;
+                    requests.add(executor.submit(() -> {
+                        myUserDetailsService.loadUserByUsername("pinning-user");
+                        assertThrows(UsernameNotFoundException.class,
+                                () -> myUserDetailsService.loadUserByUsername("missing-" + request % 5));
+                        dashboardService.getDashboardById(sharedId);
+                        Dashboard saved = dashboardService.saveDashboard(
+                                Dashboard.builder().title("Title " + request).build());
+                        dashboardService.getDashboardById(saved.getId());
+                        dashboardService.updateDashboard(saved.getId(), Dashboard.builder().title("Renamed").build());
+                        dashboardService.getDashboardPage(null, 10);
+                        dashboardService.deleteDashboardById(saved.getId());
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> request : requests) {
+                request.get();
+            }
+            // Waits until every event recorded so far has been delivered
+            recording.stop();
+        }
+
+        assertTrue(pinned.isEmpty(), () -> pinned.size() + " pinned virtual threads:\n" + pinned.stream()
+                .map(event -> event.getStackTrace().getFrames().stream()
+                        .map(frame -> "    at " + frame.getMethod().getType().getName() + "."
+                                + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                        .collect(Collectors.joining("\n")))
+                .collect(Collectors.joining("\n\n")));
+    }
+
+    // Every connection checkout blocks for a moment, like a round trip to a remote database
+    @TestConfiguration
+    static class SlowDatabase {
+
+        @Bean
+        static BeanPostProcessor slowDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new SlowDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    static class SlowDataSource extends DelegatingDataSource {
+
+        SlowDataSource(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException(e);
+            }
+            return super.getConnection();
+        }
+    }
+}
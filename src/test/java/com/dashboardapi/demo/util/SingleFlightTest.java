@@ -0,0 +1,143 @@
+package com.dashboardapi.demo.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 32;
+
+    @Test
+    @DisplayName("Concurrent loads of the same key run the loader once and share its value")
+    public void whenLoadedConcurrently_thenLoaderRunsOnce() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        List<Object> results = loadConcurrently(singleFlight, key -> {
+            loads.incrementAndGet();
+            return "dashboard " + key;
+        });
+
+        assertEquals(1, loads.get());
+        results.forEach(result -> assertEquals("dashboard 1", result));
+        assertEquals(CALLERS - 1, singleFlight.getJoinedCount());
+    }
+
+    @Test
+    @DisplayName("Concurrent callers share a not-found result and a failure")
+    public void whenLoadFailsOrFindsNothing_thenEveryCallerSeesIt() throws Exception {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        loadConcurrently(singleFlight, key -> {
+            loads.incrementAndGet();
+            return null;
+        }).forEach(result -> assertNull(result));
+
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+        loadConcurrently(singleFlight, key -> {
+            loads.incrementAndGet();
+            throw failure;
+        }).forEach(result -> assertSame(failure, result));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("A load started after the previous one completed runs the loader again")
+    public void whenLoadedSequentially_thenNothingIsRemembered() {
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.load(1L, key -> "first " + loads.incrementAndGet());
+        assertEquals("first 2", singleFlight.load(1L, key -> "first " + loads.incrementAndGet()));
+        assertThrows(IllegalArgumentException.class, () -> singleFlight.load(1L, key -> {
+            throw new IllegalArgumentException();
+        }));
+        assertEquals(0, singleFlight.getJoinedCount());
+    }
+
+    /**
+     * Starts one caller whose load blocks until every other caller is parked waiting on it, then releases it.
+     * Returns each caller's value, or the exception it received.
+     */
+    static List<Object> loadConcurrently(SingleFlight<Long, String> singleFlight,
+                                         Function<Long, String> loader) throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Long, String> blockingLoader = key -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader.apply(key);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Thread> waiters = new ArrayList<>();
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> call(singleFlight, blockingLoader)));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            CountDownLatch started = new CountDownLatch(CALLERS - 1);
+            for (int i = 1; i < CALLERS; i++) {
+                futures.add(executor.submit(() -> {
+                    synchronized (waiters) {
+                        waiters.add(Thread.currentThread());
+                    }
+                    started.countDown();
+                    return call(singleFlight, blockingLoader);
+                }));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            awaitParked(waiters);
+            release.countDown();
+
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Object call(SingleFlight<Long, String> singleFlight, Function<Long, String> loader) {
+        try {
+            return singleFlight.load(1L, loader);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private static void awaitParked(List<Thread> waiters) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        synchronized (waiters) {
+            for (Thread waiter : waiters) {
+                while (waiter.getState() != Thread.State.WAITING) {
+                    assertTrue(System.nanoTime() < deadline, "caller did not start waiting");
+                    Thread.sleep(1);
+                }
+            }
+        }
+    }
+}